@@ -0,0 +1,138 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.samples.petclinic.owner.Owner;
+import org.springframework.samples.petclinic.owner.Pet;
+import org.springframework.samples.petclinic.owner.PetType;
+import org.springframework.samples.petclinic.owner.Visit;
+import org.springframework.samples.petclinic.vet.Specialty;
+import org.springframework.samples.petclinic.vet.Vet;
+import org.springframework.samples.petclinic.vet.Vets;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.hibernate6.Hibernate6Module;
+
+/**
+ * Measures the Jackson serialization of the {@link Owner} aggregate and of the
+ * {@link Vets} list, configured like the application's {@link ObjectMapper}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+	@Param({ "1", "10" })
+	public int visitsPerPet;
+
+	@Param({ "6", "60" })
+	public int vets;
+
+	private ObjectMapper objectMapper;
+
+	private Owner owner;
+
+	private Vets vetList;
+
+	@Setup
+	public void setup() {
+		this.objectMapper = Jackson2ObjectMapperBuilder.json()
+			.modulesToInstall(new Hibernate6Module())
+			.featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+			.build();
+		this.owner = owner(2, this.visitsPerPet);
+		this.vetList = vets(this.vets);
+	}
+
+	@Benchmark
+	public byte[] serializeOwner() throws JsonProcessingException {
+		return this.objectMapper.writeValueAsBytes(this.owner);
+	}
+
+	@Benchmark
+	public byte[] serializeVets() throws JsonProcessingException {
+		return this.objectMapper.writeValueAsBytes(this.vetList);
+	}
+
+	private static Owner owner(int pets, int visitsPerPet) {
+		Owner owner = new Owner();
+		owner.setId(1);
+		owner.setFirstName("George");
+		owner.setLastName("Franklin");
+		owner.setAddress("110 W. Liberty St.");
+		owner.setCity("Madison");
+		owner.setTelephone("6085551023");
+		PetType cat = new PetType();
+		cat.setId(1);
+		cat.setName("cat");
+		for (int p = 1; p <= pets; p++) {
+			Pet pet = new Pet();
+			pet.setName("Leo" + p);
+			pet.setBirthDate(LocalDate.of(2010, 9, 7));
+			pet.setType(cat);
+			owner.addPet(pet);
+			pet.setId(p);
+			for (int v = 1; v <= visitsPerPet; v++) {
+				Visit visit = new Visit();
+				visit.setId(p * visitsPerPet + v);
+				visit.setDate(LocalDate.of(2013, 1, 1).plusDays(v));
+				visit.setDescription("rabies shot");
+				pet.addVisit(visit);
+			}
+		}
+		return owner;
+	}
+
+	private static Vets vets(int count) {
+		String[] names = { "radiology", "surgery", "dentistry" };
+		Vets vets = new Vets();
+		for (int i = 1; i <= count; i++) {
+			Vet vet = new Vet();
+			vet.setId(i);
+			vet.setFirstName("James");
+			vet.setLastName("Carter");
+			for (int s = 0; s < i % 4; s++) {
+				Specialty specialty = new Specialty();
+				specialty.setId(s + 1);
+				specialty.setName(names[s % names.length]);
+				vet.addSpecialty(specialty);
+			}
+			vets.getVetList().add(vet);
+		}
+		return vets;
+	}
+
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.samples.petclinic.owner.Owner;
+import org.springframework.samples.petclinic.owner.OwnerRepository;
+import org.springframework.samples.petclinic.owner.OwnerSummary;
+import org.springframework.samples.petclinic.owner.Visit;
+import org.springframework.samples.petclinic.system.SampleDataGenerator;
+import org.springframework.samples.petclinic.vet.Vet;
+import org.springframework.samples.petclinic.vet.VetRepository;
+
+/**
+ * Measures the repository calls behind the busiest pages against an embedded H2 database.
+ * The sample data is extended by the {@link SampleDataGenerator} with {@code owners}
+ * owners having {@code petsPerOwner} pets with {@code visitsPerPet} visits each; use e.g.
+ * {@code -p owners=100000} to run at a larger scale. Caching is disabled so that every
+ * call reaches the database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepositoryBenchmark {
+
+	@Param({ "1000" })
+	public int owners;
+
+	@Param({ "2" })
+	public int petsPerOwner;
+
+	@Param({ "5" })
+	public int visitsPerPet;
+
+	private ConfigurableApplicationContext context;
+
+	private OwnerRepository ownerRepository;
+
+	private VetRepository vetRepository;
+
+	private int firstOwnerId;
+
+	private int next;
+
+	@Setup
+	public void setup() {
+		this.context = new SpringApplicationBuilder(PetClinicApplication.class).web(WebApplicationType.NONE)
+			.properties("spring.cache.type=none", "spring.docker.compose.enabled=false", "logging.level.root=WARN")
+			.run();
+		this.ownerRepository = this.context.getBean(OwnerRepository.class);
+		this.vetRepository = this.context.getBean(VetRepository.class);
+		this.firstOwnerId = new SampleDataGenerator(this.context.getBean(JdbcTemplate.class), 100, 50)
+			.generate(this.owners, this.petsPerOwner, this.visitsPerPet, 42)
+			.firstOwnerId();
+	}
+
+	@TearDown
+	public void tearDown() {
+		this.context.close();
+	}
+
+	@Benchmark
+	public List<OwnerSummary> searchOwnerSummariesByLastNamePrefix() {
+		return this.ownerRepository.findSummariesByLastNameStartingWith("Ro", "", 0, Limit.of(20));
+	}
+
+	@Benchmark
+	public Optional<Owner> findOwnerWithPets() {
+		return this.ownerRepository.findWithPetsById(nextOwnerId());
+	}
+
+	@Benchmark
+	public Optional<Owner> findOwnerWithPetsAndVisits() {
+		return this.ownerRepository.findById(nextOwnerId());
+	}
+
+	@Benchmark
+	public List<Visit> findRecentVisits() {
+		return this.ownerRepository.findRecentVisitsByPetId(1, Limit.of(10));
+	}
+
+	@Benchmark
+	public Collection<Vet> findAllVets() {
+		return this.vetRepository.findAll();
+	}
+
+	private int nextOwnerId() {
+		this.next = (this.next + 1) % this.owners;
+		return this.firstOwnerId + this.next;
+	}
+
+}
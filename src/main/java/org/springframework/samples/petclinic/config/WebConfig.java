@@ -1,5 +1,8 @@
 package org.springframework.samples.petclinic.config;
 
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.datatype.hibernate6.Hibernate6Module;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.MediaType;
 import org.springframework.web.servlet.config.annotation.ContentNegotiationConfigurer;
@@ -16,4 +19,13 @@ public class WebConfig implements WebMvcConfigurer {
             .mediaType("html", MediaType.TEXT_HTML);
     }
 
+    /**
+     * Serializes lazy associations that were not fetched by the entity graph of a query
+     * as {@code null} instead of failing outside of the persistence context.
+     */
+    @Bean
+    public Module hibernateModule() {
+        return new Hibernate6Module();
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Exports all owners, then all pets, then all visits (archived ones last) as newline
+ * delimited JSON, one {@link ExportLine} per line. Rows are streamed from database
+ * cursors straight to the response within a single read-only transaction, so the export
+ * runs in constant memory however large the dataset is.
+ */
+@RestController
+class ExportController {
+
+	static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+	private final ExportRepository exports;
+
+	private final TransactionTemplate transactionTemplate;
+
+	private final ObjectWriter writer;
+
+	ExportController(ExportRepository exports, PlatformTransactionManager transactionManager,
+			ObjectMapper objectMapper) {
+		this.exports = exports;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.transactionTemplate.setReadOnly(true);
+		this.writer = objectMapper.writerFor(ExportLine.class)
+			.withRootValueSeparator("\n")
+			.without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+			.without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+	}
+
+	@GetMapping("/export")
+	public ResponseEntity<StreamingResponseBody> export() {
+		StreamingResponseBody body = output -> this.transactionTemplate.executeWithoutResult(status -> {
+			try (SequenceWriter lines = this.writer.writeValues(output)) {
+				write(this.exports.streamOwners(), lines);
+				write(this.exports.streamPets(), lines);
+				write(this.exports.streamVisits(), lines);
+				write(this.exports.streamArchivedVisits(), lines);
+				lines.flush();
+				output.write('\n');
+			}
+			catch (IOException ex) {
+				throw new UncheckedIOException(ex);
+			}
+		});
+		return ResponseEntity.ok().contentType(APPLICATION_NDJSON).body(body);
+	}
+
+	private static void write(Stream<? extends ExportLine> stream, SequenceWriter lines) throws IOException {
+		try (stream) {
+			Iterator<? extends ExportLine> iterator = stream.iterator();
+			while (iterator.hasNext()) {
+				lines.write(iterator.next());
+			}
+		}
+	}
+
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import java.time.LocalDate;
+
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+
+/**
+ * A line of the clinic export: a flat projection of an owner, a pet or a visit, tagged
+ * with its {@code type}. Lines are read as projections rather than entities so that
+ * nothing accumulates in the persistence context while exporting.
+ *
+ * @see ExportController
+ */
+@JsonTypeInfo(use = JsonTypeInfo.Id.NAME, property = "type")
+@JsonSubTypes({ @JsonSubTypes.Type(value = ExportLine.OwnerLine.class, name = "owner"),
+		@JsonSubTypes.Type(value = ExportLine.PetLine.class, name = "pet"),
+		@JsonSubTypes.Type(value = ExportLine.VisitLine.class, name = "visit") })
+public sealed interface ExportLine {
+
+	record OwnerLine(Integer id, String firstName, String lastName, String address, String city,
+			String telephone) implements ExportLine {
+	}
+
+	record PetLine(Integer id, Integer ownerId, String name, LocalDate birthDate, String type) implements ExportLine {
+	}
+
+	record VisitLine(Integer id, Integer petId, LocalDate date, String description) implements ExportLine {
+	}
+
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.NativeQuery;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.Repository;
+import org.springframework.samples.petclinic.owner.ExportLine.OwnerLine;
+import org.springframework.samples.petclinic.owner.ExportLine.PetLine;
+import org.springframework.samples.petclinic.owner.ExportLine.VisitLine;
+
+import jakarta.persistence.QueryHint;
+
+/**
+ * Repository streaming the whole clinic dataset as {@link ExportLine}s, in id order. The
+ * visits still loaded with their pets and the archived ones are streamed separately.
+ * <p>
+ * Each method reads through a forward-only cursor with a JDBC fetch size of
+ * {@value #FETCH_SIZE} rows, so that memory use does not depend on the size of the
+ * tables. The returned streams must be consumed within a transaction and closed
+ * afterwards.
+ * </p>
+ */
+public interface ExportRepository extends Repository<Owner, Integer> {
+
+	int FETCH_SIZE = 1000;
+
+	@Query("SELECT new org.springframework.samples.petclinic.owner.ExportLine$OwnerLine("
+			+ "o.id, o.firstName, o.lastName, o.address, o.city, o.telephone) FROM Owner o ORDER BY o.id")
+	@QueryHints({ @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + FETCH_SIZE),
+			@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true") })
+	Stream<OwnerLine> streamOwners();
+
+	@Query("SELECT new org.springframework.samples.petclinic.owner.ExportLine$PetLine("
+			+ "p.id, o.id, p.name, p.birthDate, t.name) "
+			+ "FROM Owner o JOIN o.pets p LEFT JOIN p.type t ORDER BY p.id")
+	@QueryHints({ @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + FETCH_SIZE),
+			@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true") })
+	Stream<PetLine> streamPets();
+
+	@Query("SELECT new org.springframework.samples.petclinic.owner.ExportLine$VisitLine("
+			+ "v.id, p.id, v.date, v.description) FROM Pet p JOIN p.visits v ORDER BY v.id")
+	@QueryHints({ @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + FETCH_SIZE),
+			@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true") })
+	Stream<VisitLine> streamVisits();
+
+	@NativeQuery(sqlResultSetMapping = Visit.EXPORT_LINE_MAPPING,
+			value = "SELECT id, pet_id, visit_date, description FROM visits_archive ORDER BY id")
+	@QueryHints({ @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + FETCH_SIZE),
+			@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true") })
+	Stream<VisitLine> streamArchivedVisits();
+
+}
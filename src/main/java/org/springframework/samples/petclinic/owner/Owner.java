@@ -16,7 +16,10 @@
 package org.springframework.samples.petclinic.owner;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 import org.springframework.core.style.ToStringCreator;
 import org.springframework.samples.petclinic.model.Person;
@@ -27,14 +30,28 @@ import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.JoinColumn;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.NamedSubgraph;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.OrderBy;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.NotBlank;
 
 /**
  * Simple JavaBean domain object representing an owner.
+ * <p>
+ * Both the pets of an owner and the visits of each pet are loaded lazily. Repository
+ * methods pick one of the named entity graphs declared here to fetch just the part of
+ * the aggregate a view needs: {@value #PETS_GRAPH} for the owner and its pets, and
+ * {@value #PETS_AND_VISITS_GRAPH} for their visits as well. The pets are joined to the
+ * owner, while the visits of all pets are read by one batched select (see {@link Pet}),
+ * so that neither a select per pet nor a join returning one row per visit of every pet
+ * is needed. Archived visits are never loaded with the aggregate, see
+ * {@link VisitRepository#findHistoryByPetId}.
+ * </p>
  *
  * @author Ken Krebs
  * @author Juergen Hoeller
@@ -45,8 +62,26 @@ import jakarta.validation.constraints.NotBlank;
  */
 @Entity
 @Table(name = "owners")
+@NamedEntityGraph(name = Owner.PETS_GRAPH,
+		attributeNodes = @NamedAttributeNode(value = "pets", subgraph = "pet"),
+		subgraphs = @NamedSubgraph(name = "pet", attributeNodes = @NamedAttributeNode("type")))
+@NamedEntityGraph(name = Owner.PETS_AND_VISITS_GRAPH,
+		attributeNodes = @NamedAttributeNode(value = "pets", subgraph = "pet"),
+		subgraphs = @NamedSubgraph(name = "pet",
+				attributeNodes = { @NamedAttributeNode("type"), @NamedAttributeNode("visits") }))
 public class Owner extends Person {
 
+	/**
+	 * Entity graph fetching the owner with its pets and their types, but no visits.
+	 */
+	public static final String PETS_GRAPH = "Owner.pets";
+
+	/**
+	 * Entity graph fetching the owner with its pets and every visit of each pet that has
+	 * not been archived.
+	 */
+	public static final String PETS_AND_VISITS_GRAPH = "Owner.petsAndVisits";
+
 	@Column(name = "address")
 	@NotBlank
 	private String address;
@@ -60,11 +95,27 @@ public class Owner extends Person {
 	@Pattern(regexp = "\\d{10}", message = "{telephone.invalid}")
 	private String telephone;
 
-	@OneToMany(cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+	@OneToMany(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
 	@JoinColumn(name = "owner_id")
 	@OrderBy("name")
 	private final List<Pet> pets = new ArrayList<>();
 
+	// Indexes of the pets by id and by lower-cased name, built on the first lookup and
+	// kept up to date by addPet. They are rebuilt when pets are added to the list
+	// directly, renamed, or saved after indexing.
+
+	@Transient
+	private Map<Integer, Pet> petsById;
+
+	@Transient
+	private Map<String, Pet> petsByName;
+
+	@Transient
+	private int indexedPets;
+
+	@Transient
+	private int unsavedPets;
+
 	public String getAddress() {
 		return this.address;
 	}
@@ -96,6 +147,9 @@ public class Owner extends Person {
 	public void addPet(Pet pet) {
 		if (pet.isNew()) {
 			getPets().add(pet);
+			if (this.petsById != null && this.indexedPets == getPets().size() - 1) {
+				indexPet(pet);
+			}
 		}
 	}
 
@@ -114,15 +168,14 @@ public class Owner extends Person {
 	 * @return the Pet with the given id, or null if no such Pet exists for this Owner
 	 */
 	public Pet getPet(Integer id) {
-		for (Pet pet : getPets()) {
-			if (!pet.isNew()) {
-				Integer compId = pet.getId();
-				if (compId.equals(id)) {
-					return pet;
-				}
-			}
+		indexPetsIfNeeded();
+		Pet pet = this.petsById.get(id);
+		if (pet == null && this.unsavedPets > 0) {
+			// pets that were new when indexed may have been saved since
+			indexPets();
+			pet = this.petsById.get(id);
 		}
-		return null;
+		return pet;
 	}
 
 	/**
@@ -132,15 +185,58 @@ public class Owner extends Person {
 	 * @return the Pet with the given name, or null if no such Pet exists for this Owner
 	 */
 	public Pet getPet(String name, boolean ignoreNew) {
-		for (Pet pet : getPets()) {
-			String compName = pet.getName();
-			if (compName != null && compName.equalsIgnoreCase(name)) {
-				if (!ignoreNew || !pet.isNew()) {
-					return pet;
+		if (name == null) {
+			return null;
+		}
+		indexPetsIfNeeded();
+		Pet pet = this.petsByName.get(name.toLowerCase(Locale.ROOT));
+		if (pet != null && ignoreNew && pet.isNew()) {
+			// a saved pet of the same name might come after the new one
+			for (Pet candidate : getPets()) {
+				if (!candidate.isNew() && name.equalsIgnoreCase(candidate.getName())) {
+					return candidate;
 				}
 			}
+			return null;
+		}
+		return pet;
+	}
+
+	/**
+	 * Called by a {@link Pet} of this owner when its name changes.
+	 */
+	void petRenamed() {
+		this.petsById = null;
+	}
+
+	private void indexPetsIfNeeded() {
+		if (this.petsById == null || this.indexedPets != getPets().size()) {
+			indexPets();
+		}
+	}
+
+	private void indexPets() {
+		this.petsById = new HashMap<>();
+		this.petsByName = new HashMap<>();
+		this.indexedPets = 0;
+		this.unsavedPets = 0;
+		for (Pet pet : getPets()) {
+			indexPet(pet);
+		}
+	}
+
+	private void indexPet(Pet pet) {
+		pet.setOwner(this);
+		if (pet.isNew()) {
+			this.unsavedPets++;
+		}
+		else {
+			this.petsById.putIfAbsent(pet.getId(), pet);
+		}
+		if (pet.getName() != null) {
+			this.petsByName.putIfAbsent(pet.getName().toLowerCase(Locale.ROOT), pet);
 		}
-		return null;
+		this.indexedPets++;
 	}
 
 	@Override
@@ -15,12 +15,16 @@
  */
 package org.springframework.samples.petclinic.owner;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -39,10 +43,20 @@ import jakarta.validation.Valid;
 @RequestMapping("/owners")
 class OwnerController {
 
+	private static final int MAX_SEARCH_SIZE = 100;
+
+	private static final int MAX_HISTORY_SIZE = 100;
+
 	private final OwnerRepository owners;
 
-	public OwnerController(OwnerRepository owners) {
+	private final OwnerResolver ownerResolver;
+
+	private final VisitRepository visits;
+
+	public OwnerController(OwnerRepository owners, OwnerResolver ownerResolver, VisitRepository visits) {
 		this.owners = owners;
+		this.ownerResolver = ownerResolver;
+		this.visits = visits;
 	}
 
 	@GetMapping(value = "/new", produces = MediaType.APPLICATION_JSON_VALUE)
@@ -59,9 +73,41 @@ class OwnerController {
 		return ResponseEntity.ok(savedOwner);
 	}
 
+	/**
+	 * Search owners by last name prefix. Results are {@link OwnerSummary summaries},
+	 * ordered by last name and id and paged with a keyset rather than an offset: the
+	 * response carries a <code>next</code> continuation token that is passed back as
+	 * <code>continuation</code> to fetch the following window.
+	 */
+	@GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<OwnerSearchResult> findOwners(@RequestParam(defaultValue = "") String lastName,
+			@RequestParam(required = false) String continuation, @RequestParam(defaultValue = "20") int size) {
+		if (size < 1 || size > MAX_SEARCH_SIZE) {
+			return ResponseEntity.badRequest().build();
+		}
+		Keyset after = Keyset.FIRST;
+		if (continuation != null) {
+			Optional<Keyset> decoded = Keyset.decode(continuation);
+			if (decoded.isEmpty()) {
+				return ResponseEntity.badRequest().build();
+			}
+			after = decoded.get();
+		}
+		// one more than requested tells whether there is a next window
+		List<OwnerSummary> summaries = this.owners.findSummariesByLastNameStartingWith(lastName, after.lastName(),
+				after.id(), Limit.of(size + 1));
+		String next = null;
+		if (summaries.size() > size) {
+			summaries = summaries.subList(0, size);
+			OwnerSummary last = summaries.get(size - 1);
+			next = new Keyset(last.lastName(), last.id()).encode();
+		}
+		return ResponseEntity.ok(new OwnerSearchResult(summaries, next));
+	}
+
 	@GetMapping(value = "/{ownerId}", produces = MediaType.APPLICATION_JSON_VALUE)
 	public ResponseEntity<Owner> showOwner(@PathVariable("ownerId") int ownerId) {
-		Optional<Owner> owner = this.owners.findById(ownerId);
+		Optional<Owner> owner = this.ownerResolver.findById(ownerId);
 		if (!owner.isPresent()) {
 			return ResponseEntity.notFound().build();
 		}
@@ -74,7 +120,7 @@ class OwnerController {
 			return ResponseEntity.badRequest().build();
 		}
 
-		Optional<Owner> optionalOwner = this.owners.findById(ownerId);
+		Optional<Owner> optionalOwner = this.ownerResolver.findWithPetsById(ownerId);
 		if (!optionalOwner.isPresent()) {
 			return ResponseEntity.notFound().build();
 		}
@@ -93,21 +139,82 @@ class OwnerController {
 			return ResponseEntity.badRequest().build();
 		}
 
-		Optional<Owner> optionalOwner = this.owners.findById(ownerId);
-		if (!optionalOwner.isPresent()) {
+		// a single INSERT that also verifies that the owner has such a pet
+		if (this.visits.addVisit(ownerId, petId, visit.getDate(), visit.getDescription()) == 0) {
 			return ResponseEntity.notFound().build();
 		}
 
-		Owner owner = optionalOwner.get();
-		Pet pet = owner.getPet(petId);
-		if (pet == null) {
+		return ResponseEntity.ok(visit);
+	}
+
+	/**
+	 * The complete visit history of a pet, newest first, including the visits moved to
+	 * the archive. Paged by page number: the response carries the <code>next</code> page,
+	 * if there is one.
+	 */
+	@GetMapping(value = "/{ownerId}/pets/{petId}/visits", produces = MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<VisitHistory> showVisitHistory(@PathVariable("ownerId") int ownerId,
+			@PathVariable("petId") int petId, @RequestParam(defaultValue = "0") int page,
+			@RequestParam(defaultValue = "20") int size) {
+		if (page < 0 || size < 1 || size > MAX_HISTORY_SIZE) {
+			return ResponseEntity.badRequest().build();
+		}
+		Optional<Owner> owner = this.ownerResolver.findWithPetsById(ownerId);
+		if (owner.isEmpty() || owner.get().getPet(petId) == null) {
 			return ResponseEntity.notFound().build();
 		}
+		Slice<VisitHistoryEntry> visits = this.visits.findHistoryByPetId(petId, PageRequest.of(page, size));
+		return ResponseEntity.ok(new VisitHistory(visits.getContent(), visits.hasNext() ? page + 1 : null));
+	}
 
-		pet.addVisit(visit);
-		this.owners.save(owner);
+	/**
+	 * Position of an owner in the {@code (lastName, id)} search order, exchanged with
+	 * clients as an opaque continuation token.
+	 */
+	private record Keyset(String lastName, int id) {
 
-		return ResponseEntity.ok(visit);
+		/**
+		 * Before the first owner: ids are positive, and last names are never empty.
+		 */
+		static final Keyset FIRST = new Keyset("", 0);
+
+		String encode() {
+			String token = this.id + ":" + this.lastName;
+			return Base64.getUrlEncoder().withoutPadding().encodeToString(token.getBytes(StandardCharsets.UTF_8));
+		}
+
+		static Optional<Keyset> decode(String continuation) {
+			try {
+				String token = new String(Base64.getUrlDecoder().decode(continuation), StandardCharsets.UTF_8);
+				int separator = token.indexOf(':');
+				if (separator < 1) {
+					return Optional.empty();
+				}
+				int id = Integer.parseInt(token.substring(0, separator));
+				return Optional.of(new Keyset(token.substring(separator + 1), id));
+			}
+			catch (IllegalArgumentException ex) {
+				return Optional.empty();
+			}
+		}
+
+	}
+
+	/**
+	 * One window of an owner search.
+	 * @param owners the owners in this window
+	 * @param next continuation token for the following window, or {@code null} on the
+	 * last one
+	 */
+	record OwnerSearchResult(List<OwnerSummary> owners, String next) {
+	}
+
+	/**
+	 * One page of the visit history of a pet.
+	 * @param visits the visits on this page
+	 * @param next the number of the following page, or {@code null} on the last one
+	 */
+	record VisitHistory(List<VisitHistoryEntry> visits, Integer next) {
 	}
 
-}
\ No newline at end of file
+}
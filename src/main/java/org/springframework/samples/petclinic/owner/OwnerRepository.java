@@ -19,10 +19,14 @@ import java.util.List;
 import java.util.Optional;
 
 import jakarta.annotation.Nonnull;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Repository class for <code>Owner</code> domain objects All method names are compliant
@@ -52,10 +56,66 @@ public interface OwnerRepository extends JpaRepository<Owner, Integer> {
 	 * @return a Collection of matching {@link Owner}s (or an empty Collection if none
 	 * found)
 	 */
+	@Transactional(readOnly = true)
 	Page<Owner> findByLastNameStartingWith(String lastName, Pageable pageable);
 
 	/**
-	 * Retrieve an {@link Owner} from the data store by id.
+	 * Retrieve {@link OwnerSummary summaries} of the {@link Owner}s whose last name
+	 * <i>starts</i> with the given name, ignoring case, ordered by last name and id,
+	 * starting after the given owner. The pet names are aggregated in SQL
+	 * ({@code LISTAGG}, {@code string_agg} or {@code group_concat}, depending on the
+	 * database), for the owners of the window only: these are picked by a derived table
+	 * first, so that a window costs the same however many owners match. The keyset
+	 * predicate bounds the last name from below, which lets the index seek start at the
+	 * given owner instead of filtering every owner before it.
+	 * @param lastName Value to search for
+	 * @param afterLastName the last name of the last owner of the previous window, or an
+	 * empty string for the first window
+	 * @param afterId the id of that owner, or {@code 0} for the first window
+	 * @param limit the maximum number of summaries to return
+	 * @return the matching summaries, in {@code (lastName, id)} order
+	 * @see org.springframework.samples.petclinic.system.SearchKeyFunctionContributor
+	 */
+	@Transactional(readOnly = true)
+	@Query("""
+			SELECT new org.springframework.samples.petclinic.owner.OwnerSummary(o.id, o.firstName, o.lastName,
+			  o.address, o.city, o.telephone, LISTAGG(p.name, ', ') WITHIN GROUP (ORDER BY p.name))
+			FROM (SELECT w.id AS id FROM Owner w
+			  WHERE search_key(w.lastName) LIKE :#{escape(#lastName.toLowerCase())}% ESCAPE :#{escapeCharacter()}
+			    AND w.lastName >= :afterLastName AND (w.lastName > :afterLastName OR w.id > :afterId)
+			  ORDER BY w.lastName, w.id
+			  LIMIT :#{[3].max()}) page
+			JOIN Owner o ON o.id = page.id LEFT JOIN o.pets p
+			GROUP BY o.id, o.firstName, o.lastName, o.address, o.city, o.telephone
+			ORDER BY o.lastName, o.id""")
+	List<OwnerSummary> findSummariesByLastNameStartingWith(@Param("lastName") String lastName,
+			@Param("afterLastName") String afterLastName, @Param("afterId") int afterId, Limit limit);
+
+	/**
+	 * Retrieve an {@link Owner} from the data store by id, together with its
+	 * {@link Pet}s but without any {@link Visit}s. Use this for views and writes that do
+	 * not need the visit history.
+	 * @param id the id to search for
+	 * @return an {@link Optional} containing the {@link Owner} if found, or an empty
+	 * {@link Optional} if not found.
+	 */
+	@Transactional(readOnly = true)
+	@EntityGraph(Owner.PETS_GRAPH)
+	Optional<Owner> findWithPetsById(Integer id);
+
+	/**
+	 * Retrieve the most recent {@link Visit}s of a {@link Pet}, newest first.
+	 * @param petId the id of the pet
+	 * @param limit the maximum number of visits to return
+	 * @return the visits, or an empty list if the pet has none
+	 */
+	@Transactional(readOnly = true)
+	@Query("SELECT v FROM Pet p JOIN p.visits v WHERE p.id = :petId ORDER BY v.date DESC, v.id DESC")
+	List<Visit> findRecentVisitsByPetId(@Param("petId") Integer petId, Limit limit);
+
+	/**
+	 * Retrieve an {@link Owner} from the data store by id, with all of its {@link Pet}s
+	 * and their {@link Visit}s, except for the archived ones.
 	 * <p>
 	 * This method returns an {@link Optional} containing the {@link Owner} if found. If
 	 * no {@link Owner} is found with the provided id, it will return an empty
@@ -67,6 +127,7 @@ public interface OwnerRepository extends JpaRepository<Owner, Integer> {
 	 * @throws IllegalArgumentException if the id is null (assuming null is not a valid
 	 * input for id)
 	 */
+	@EntityGraph(Owner.PETS_AND_VISITS_GRAPH)
 	Optional<Owner> findById(@Nonnull Integer id);
 
 }
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2012-2019 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import java.util.Optional;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Loads {@link Owner} aggregates at most once per request.
+ * <p>
+ * Model attribute methods and handler methods of the owner controllers often need the
+ * same owner. The first lookup of an owner id is stored as a request attribute and
+ * served to every later lookup of the same request. An owner loaded with its visits also
+ * satisfies lookups that only need the pets; the reverse triggers a single reload with
+ * the visits. Outside of a web request every call goes to the {@link OwnerRepository}.
+ * </p>
+ */
+@Component
+class OwnerResolver {
+
+	private static final String ATTRIBUTE_PREFIX = OwnerResolver.class.getName() + ".owner.";
+
+	private final OwnerRepository owners;
+
+	OwnerResolver(OwnerRepository owners) {
+		this.owners = owners;
+	}
+
+	/**
+	 * Resolve an owner with its pets, but not necessarily their visits.
+	 * @see OwnerRepository#findWithPetsById(Integer)
+	 */
+	Optional<Owner> findWithPetsById(int ownerId) {
+		Resolved resolved = lookup(ownerId);
+		if (resolved == null) {
+			resolved = store(ownerId, new Resolved(this.owners.findWithPetsById(ownerId), false));
+		}
+		return resolved.owner();
+	}
+
+	/**
+	 * Resolve an owner with its pets and their visits, except for the archived ones.
+	 * @see OwnerRepository#findById(Integer)
+	 */
+	Optional<Owner> findById(int ownerId) {
+		Resolved resolved = lookup(ownerId);
+		if (resolved == null || (!resolved.withVisits() && resolved.owner().isPresent())) {
+			resolved = store(ownerId, new Resolved(this.owners.findById(ownerId), true));
+		}
+		return resolved.owner();
+	}
+
+	private Resolved lookup(int ownerId) {
+		RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+		if (attributes == null) {
+			return null;
+		}
+		return (Resolved) attributes.getAttribute(ATTRIBUTE_PREFIX + ownerId, RequestAttributes.SCOPE_REQUEST);
+	}
+
+	private Resolved store(int ownerId, Resolved resolved) {
+		RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+		if (attributes != null) {
+			attributes.setAttribute(ATTRIBUTE_PREFIX + ownerId, resolved, RequestAttributes.SCOPE_REQUEST);
+		}
+		return resolved;
+	}
+
+	private record Resolved(Optional<Owner> owner, boolean withVisits) {
+	}
+
+}
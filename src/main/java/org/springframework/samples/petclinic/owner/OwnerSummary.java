@@ -0,0 +1,30 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+/**
+ * Read-only projection of an {@link Owner} for list and search views: the owner columns
+ * and the names of its pets, aggregated by the database into a single string. Reading
+ * summaries never loads {@link Pet} or {@link Visit} entities.
+ *
+ * @param petNames the names of the pets in alphabetical order, separated by
+ * {@code ", "}, or {@code null} if the owner has no pets
+ * @see OwnerRepository#findSummariesByLastNameStartingWith
+ */
+public record OwnerSummary(Integer id, String firstName, String lastName, String address, String city,
+		String telephone, String petNames) {
+
+}
@@ -20,6 +20,7 @@ import java.util.Collection;
 import java.util.LinkedHashSet;
 import java.util.Set;
 
+import org.hibernate.annotations.BatchSize;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.samples.petclinic.model.NamedEntity;
 
@@ -32,6 +33,7 @@ import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.OrderBy;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 
 /**
  * Simple business object representing a pet.
@@ -53,11 +55,25 @@ public class Pet extends NamedEntity {
 	@JoinColumn(name = "type_id")
 	private PetType type;
 
-	@OneToMany(cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+	// The recent visits only, older ones are moved to the archive by the VisitArchiver
+	@OneToMany(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
 	@JoinColumn(name = "pet_id")
 	@OrderBy("date ASC")
+	@BatchSize(size = 32)
 	private final Set<Visit> visits = new LinkedHashSet<>();
 
+	// The owner indexing this pet by name, see Owner#getPet(String, boolean)
+	@Transient
+	private Owner owner;
+
+	@Override
+	public void setName(String name) {
+		super.setName(name);
+		if (this.owner != null) {
+			this.owner.petRenamed();
+		}
+	}
+
 	public void setBirthDate(LocalDate birthDate) {
 		this.birthDate = birthDate;
 	}
@@ -74,6 +90,10 @@ public class Pet extends NamedEntity {
 		this.type = type;
 	}
 
+	/**
+	 * Return the visits that have not been archived yet. The complete history is
+	 * available from {@link VisitRepository#findHistoryByPetId}.
+	 */
 	public Collection<Visit> getVisits() {
 		return this.visits;
 	}
@@ -82,4 +102,8 @@ public class Pet extends NamedEntity {
 		getVisits().add(visit);
 	}
 
+	void setOwner(Owner owner) {
+		this.owner = owner;
+	}
+
 }
@@ -20,6 +20,7 @@ import java.util.Collection;
 import java.util.Optional;
 
 import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
 import org.springframework.ui.ModelMap;
 import org.springframework.util.StringUtils;
 import org.springframework.validation.BindingResult;
@@ -48,18 +49,26 @@ class PetController {
 
 	private final OwnerRepository owners;
 
-	public PetController(OwnerRepository owners) {
+	private final OwnerResolver ownerResolver;
+
+	private final PetTypeRegistry petTypes;
+
+	public PetController(OwnerRepository owners, OwnerResolver ownerResolver, PetTypeRegistry petTypes) {
 		this.owners = owners;
+		this.ownerResolver = ownerResolver;
+		this.petTypes = petTypes;
 	}
 
 	@ModelAttribute("types")
-	public Collection<PetType> populatePetTypes() {
-		return this.owners.findPetTypes();
+	public Collection<PetType> populatePetTypes(Model model) {
+		// keys the cached options of the type select box, read before the types
+		model.addAttribute("typesGeneration", this.petTypes.generation());
+		return this.petTypes.findAll();
 	}
 
 	@ModelAttribute("owner")
 	public Owner findOwner(@PathVariable("ownerId") int ownerId) {
-		Optional<Owner> optionalOwner = this.owners.findById(ownerId);
+		Optional<Owner> optionalOwner = this.ownerResolver.findWithPetsById(ownerId);
 		Owner owner = optionalOwner.orElseThrow(() -> new IllegalArgumentException(
 				"Owner not found with id: " + ownerId + ". Please ensure the ID is correct "));
 		return owner;
@@ -73,10 +82,21 @@ class PetController {
 			return new Pet();
 		}
 
-		Optional<Owner> optionalOwner = this.owners.findById(ownerId);
+		Optional<Owner> optionalOwner = this.ownerResolver.findWithPetsById(ownerId);
 		Owner owner = optionalOwner.orElseThrow(() -> new IllegalArgumentException(
 				"Owner not found with id: " + ownerId + ". Please ensure the ID is correct "));
-		return owner.getPet(petId);
+		Pet pet = owner.getPet(petId);
+		if (pet == null) {
+			return null;
+		}
+		// The form binds to a copy: the owner, which is shared with the "owner" model
+		// attribute, must keep the pets as loaded for the duplicate name check
+		Pet form = new Pet();
+		form.setId(pet.getId());
+		form.setName(pet.getName());
+		form.setBirthDate(pet.getBirthDate());
+		form.setType(pet.getType());
+		return form;
 	}
 
 	@InitBinder("owner")
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * In-memory view of the {@link PetType} table.
+ * <p>
+ * Pet types are read on every pet form, both to render the select box and to bind the
+ * submitted value, yet they almost never change. The registry loads them once into an
+ * immutable snapshot that serves lookups by name and by id without touching the
+ * database. The snapshot is dropped whenever a pet type is written (see
+ * {@link PetTypeChangeListener}) or when {@link #refresh()} is invoked, e.g. through
+ * the {@code pettypes} actuator endpoint, and is reloaded on the next access. A load
+ * that overlaps with a refresh is returned to its caller but not kept, as it may predate
+ * the change.
+ * </p>
+ */
+@Component
+public class PetTypeRegistry {
+
+	private final OwnerRepository owners;
+
+	private volatile Snapshot snapshot;
+
+	private final AtomicLong generation = new AtomicLong();
+
+	// not a monitor: a virtual thread waiting for the query would pin its carrier thread
+	private final ReentrantLock loadLock = new ReentrantLock();
+
+	public PetTypeRegistry(OwnerRepository owners) {
+		this.owners = owners;
+	}
+
+	/**
+	 * Return all pet types, ordered by name.
+	 */
+	public Collection<PetType> findAll() {
+		return snapshot().types();
+	}
+
+	public Optional<PetType> findByName(String name) {
+		return Optional.ofNullable(snapshot().byName().get(name));
+	}
+
+	public Optional<PetType> findById(Integer id) {
+		return Optional.ofNullable(snapshot().byId().get(id));
+	}
+
+	/**
+	 * Return the generation of the pet types served by this registry, which changes
+	 * whenever they may have changed. Callers that key content derived from the pet types
+	 * with it must read it <em>before</em> reading the pet types, so that a concurrent
+	 * change can only result in newer content under an older key.
+	 */
+	public long generation() {
+		return snapshot().generation();
+	}
+
+	/**
+	 * Discard the current snapshot so that the next lookup reloads the pet types.
+	 */
+	public void refresh() {
+		this.generation.incrementAndGet();
+		this.snapshot = null;
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	void onPetTypesChanged(PetTypesChangedEvent event) {
+		refresh();
+	}
+
+	private Snapshot snapshot() {
+		Snapshot current = this.snapshot;
+		if (current == null) {
+			this.loadLock.lock();
+			try {
+				current = this.snapshot;
+				if (current == null) {
+					long generation = this.generation.get();
+					current = Snapshot.of(generation, this.owners.findPetTypes());
+					if (this.generation.get() == generation) {
+						this.snapshot = current;
+					}
+				}
+			}
+			finally {
+				this.loadLock.unlock();
+			}
+		}
+		return current;
+	}
+
+	private record Snapshot(long generation, List<PetType> types, Map<String, PetType> byName,
+			Map<Integer, PetType> byId) {
+
+		static Snapshot of(long generation, List<PetType> types) {
+			return new Snapshot(generation, List.copyOf(types),
+					types.stream().collect(Collectors.toUnmodifiableMap(PetType::getName, Function.identity())),
+					types.stream().collect(Collectors.toUnmodifiableMap(PetType::getId, Function.identity())));
+		}
+
+	}
+
+	/**
+	 * Published by {@link PetTypeChangeListener} after a pet type has been inserted,
+	 * updated or deleted.
+	 */
+	public record PetTypesChangedEvent() {
+	}
+
+}
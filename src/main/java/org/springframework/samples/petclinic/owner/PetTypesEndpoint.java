@@ -0,0 +1,51 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import java.util.Collection;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator endpoint exposing the pet types held by the {@link PetTypeRegistry}. A
+ * {@code POST} to {@code /actuator/pettypes} reloads them from the database, which is
+ * only needed when the {@code types} table was changed outside of the application.
+ */
+@Component
+@Endpoint(id = "pettypes")
+class PetTypesEndpoint {
+
+	private final PetTypeRegistry registry;
+
+	PetTypesEndpoint(PetTypeRegistry registry) {
+		this.registry = registry;
+	}
+
+	@ReadOperation
+	Collection<PetType> petTypes() {
+		return this.registry.findAll();
+	}
+
+	@WriteOperation
+	Collection<PetType> refresh() {
+		this.registry.refresh();
+		return this.registry.findAll();
+	}
+
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import java.util.List;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Read-only reactive variant of the owners resource. Search results are owners with
+ * their pets, but without visits, ordered by last name. Requested as
+ * {@code application/x-ndjson} they are streamed one owner per line, as they are read
+ * from the database, and are not paged. Requested as {@code application/json} they are
+ * collected into an array, so at most {@code size} owners are returned.
+ */
+@RestController
+@RequestMapping("/reactive/owners")
+class ReactiveOwnerController {
+
+	private static final int MAX_SEARCH_SIZE = 100;
+
+	private final ReactiveOwnerRepository owners;
+
+	ReactiveOwnerController(ReactiveOwnerRepository owners) {
+		this.owners = owners;
+	}
+
+	@GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+	public Flux<Owner> streamOwners(@RequestParam(defaultValue = "") String lastName) {
+		return this.owners.findByLastNameStartingWith(lastName);
+	}
+
+	@GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+	public Mono<ResponseEntity<List<Owner>>> findOwners(@RequestParam(defaultValue = "") String lastName,
+			@RequestParam(defaultValue = "20") int size) {
+		if (size < 1 || size > MAX_SEARCH_SIZE) {
+			return Mono.just(ResponseEntity.badRequest().build());
+		}
+		// cancels the query once enough owners have been read
+		return this.owners.findByLastNameStartingWith(lastName).take(size).collectList().map(ResponseEntity::ok);
+	}
+
+	@GetMapping(value = "/{ownerId}", produces = MediaType.APPLICATION_JSON_VALUE)
+	public Mono<ResponseEntity<Owner>> showOwner(@PathVariable("ownerId") int ownerId) {
+		return this.owners.findById(ownerId).map(ResponseEntity::ok).defaultIfEmpty(ResponseEntity.notFound().build());
+	}
+
+}
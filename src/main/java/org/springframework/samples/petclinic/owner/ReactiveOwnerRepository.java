@@ -0,0 +1,172 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+
+import io.r2dbc.spi.Readable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking reads of {@link Owner}s over R2DBC. An owner is read with its pets (and,
+ * for a single owner, their visits) in one query, one row per visit, and assembled from
+ * its rows. Searches are streamed: only the owner currently being read is held in memory.
+ */
+@Repository
+class ReactiveOwnerRepository {
+
+	private static final String FIND_BY_ID = """
+			SELECT o.id, o.first_name, o.last_name, o.address, o.city, o.telephone,
+			  p.id AS pet_id, p.name AS pet_name, p.birth_date, t.id AS type_id, t.name AS type_name,
+			  v.id AS visit_id, v.visit_date, v.description
+			FROM owners o
+			LEFT JOIN pets p ON p.owner_id = o.id
+			LEFT JOIN types t ON t.id = p.type_id
+			LEFT JOIN visits v ON v.pet_id = p.id
+			WHERE o.id = :id
+			ORDER BY p.name, p.id, v.visit_date, v.id""";
+
+	private static final String FIND_BY_LAST_NAME = """
+			SELECT o.id, o.first_name, o.last_name, o.address, o.city, o.telephone,
+			  p.id AS pet_id, p.name AS pet_name, p.birth_date, t.id AS type_id, t.name AS type_name
+			FROM owners o
+			LEFT JOIN pets p ON p.owner_id = o.id
+			LEFT JOIN types t ON t.id = p.type_id
+			WHERE %s LIKE :lastName ESCAPE '!'
+			ORDER BY o.last_name, o.id, p.name, p.id""";
+
+	private final DatabaseClient client;
+
+	private final String findByLastName;
+
+	ReactiveOwnerRepository(DatabaseClient client) {
+		this.client = client;
+		this.findByLastName = FIND_BY_LAST_NAME.formatted(searchKey(client));
+	}
+
+	/**
+	 * The form of the last name that searches compare, as the {@code search_key} function
+	 * of the JPA queries: PostgreSQL compares text case-sensitively and has
+	 * {@code lower(last_name)} indexes, the other schemas declare the column
+	 * case-insensitive.
+	 * @see org.springframework.samples.petclinic.system.SearchKeyFunctionContributor
+	 */
+	private static String searchKey(DatabaseClient client) {
+		return "PostgreSQL".equals(client.getConnectionFactory().getMetadata().getName()) ? "lower(o.last_name)"
+				: "o.last_name";
+	}
+
+	/**
+	 * Retrieve an owner with its pets and their visits.
+	 * @return the owner, or an empty {@link Mono} if there is no owner with that id
+	 */
+	Mono<Owner> findById(int id) {
+		return this.client.sql(FIND_BY_ID)
+			.bind("id", id)
+			.map(row -> OwnerRow.of(row, true))
+			.all()
+			.collectList()
+			.filter(rows -> !rows.isEmpty())
+			.map(ReactiveOwnerRepository::toOwner);
+	}
+
+	/**
+	 * Retrieve the owners whose last name starts with the given prefix, ignoring case,
+	 * with their pets but without visits, ordered by last name. Rows are only read from the database as
+	 * fast as the subscriber requests owners.
+	 */
+	Flux<Owner> findByLastNameStartingWith(String lastName) {
+		return this.client.sql(this.findByLastName)
+			.bind("lastName", escapeLike(lastName.toLowerCase()) + "%")
+			.map(row -> OwnerRow.of(row, false))
+			.all()
+			.bufferUntilChanged(OwnerRow::id)
+			.map(ReactiveOwnerRepository::toOwner);
+	}
+
+	private static String escapeLike(String value) {
+		return value.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+	}
+
+	private static Owner toOwner(List<OwnerRow> rows) {
+		OwnerRow first = rows.get(0);
+		Owner owner = new Owner();
+		owner.setId(first.id());
+		owner.setFirstName(first.firstName());
+		owner.setLastName(first.lastName());
+		owner.setAddress(first.address());
+		owner.setCity(first.city());
+		owner.setTelephone(first.telephone());
+		Map<Integer, Pet> pets = new LinkedHashMap<>();
+		for (OwnerRow row : rows) {
+			if (row.petId() == null) {
+				continue;
+			}
+			Pet pet = pets.computeIfAbsent(row.petId(), id -> row.toPet());
+			if (row.visitId() != null) {
+				Visit visit = new Visit();
+				visit.setId(row.visitId());
+				visit.setDate(row.visitDate());
+				visit.setDescription(row.description());
+				pet.addVisit(visit);
+			}
+		}
+		// addPet() only accepts new pets
+		owner.getPets().addAll(pets.values());
+		return owner;
+	}
+
+	/**
+	 * A row of the owner queries. R2DBC rows are only valid while they are being mapped,
+	 * so their values are copied before the rows of an owner are collected.
+	 */
+	private record OwnerRow(Integer id, String firstName, String lastName, String address, String city,
+			String telephone, Integer petId, String petName, LocalDate birthDate, Integer typeId, String typeName,
+			Integer visitId, LocalDate visitDate, String description) {
+
+		static OwnerRow of(Readable row, boolean withVisits) {
+			return new OwnerRow(row.get("id", Integer.class), row.get("first_name", String.class),
+					row.get("last_name", String.class), row.get("address", String.class),
+					row.get("city", String.class), row.get("telephone", String.class),
+					row.get("pet_id", Integer.class), row.get("pet_name", String.class),
+					row.get("birth_date", LocalDate.class), row.get("type_id", Integer.class),
+					row.get("type_name", String.class), withVisits ? row.get("visit_id", Integer.class) : null,
+					withVisits ? row.get("visit_date", LocalDate.class) : null,
+					withVisits ? row.get("description", String.class) : null);
+		}
+
+		Pet toPet() {
+			Pet pet = new Pet();
+			pet.setId(this.petId);
+			pet.setName(this.petName);
+			pet.setBirthDate(this.birthDate);
+			PetType type = new PetType();
+			type.setId(this.typeId);
+			type.setName(this.typeName);
+			pet.setType(type);
+			return pet;
+		}
+
+	}
+
+}
@@ -21,9 +21,13 @@ import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.samples.petclinic.model.BaseEntity;
 
 import jakarta.persistence.Column;
+import jakarta.persistence.ColumnResult;
+import jakarta.persistence.ConstructorResult;
 import jakarta.persistence.Entity;
+import jakarta.persistence.SqlResultSetMapping;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
 
 /**
  * Simple JavaBean domain object representing a visit.
@@ -33,13 +37,38 @@ import jakarta.validation.constraints.NotBlank;
  */
 @Entity
 @Table(name = "visits")
+@SqlResultSetMapping(name = Visit.HISTORY_ENTRY_MAPPING,
+		classes = @ConstructorResult(targetClass = VisitHistoryEntry.class,
+				columns = { @ColumnResult(name = "id", type = Integer.class),
+						@ColumnResult(name = "visit_date", type = LocalDate.class),
+						@ColumnResult(name = "description", type = String.class),
+						@ColumnResult(name = "archived", type = Boolean.class) }))
+@SqlResultSetMapping(name = Visit.EXPORT_LINE_MAPPING,
+		classes = @ConstructorResult(targetClass = ExportLine.VisitLine.class,
+				columns = { @ColumnResult(name = "id", type = Integer.class),
+						@ColumnResult(name = "pet_id", type = Integer.class),
+						@ColumnResult(name = "visit_date", type = LocalDate.class),
+						@ColumnResult(name = "description", type = String.class) }))
 public class Visit extends BaseEntity {
 
+	/**
+	 * Maps the {@code id}, {@code visit_date}, {@code description} and {@code archived}
+	 * columns of a native query to a {@link VisitHistoryEntry}.
+	 */
+	static final String HISTORY_ENTRY_MAPPING = "Visit.historyEntry";
+
+	/**
+	 * Maps the {@code id}, {@code pet_id}, {@code visit_date} and {@code description}
+	 * columns of a native query to an {@link ExportLine.VisitLine}.
+	 */
+	static final String EXPORT_LINE_MAPPING = "Visit.exportLine";
+
 	@Column(name = "visit_date")
 	@DateTimeFormat(pattern = "yyyy-MM-dd")
 	private LocalDate date;
 
 	@NotBlank
+	@Size(max = 255)
 	private String description;
 
 	/**
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import java.time.LocalDate;
+import java.time.Period;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Moves visits older than the archive horizon from the {@code visits} table, which the
+ * {@link Pet#getVisits() visits of a pet} are loaded from, into {@code visits_archive},
+ * where they remain available through {@link VisitRepository#findHistoryByPetId}.
+ * <p>
+ * Runs on the {@code petclinic.visits.archive.cron} schedule, if one is set. Visits are
+ * moved in chunks of {@value #CHUNK_SIZE} ids, one transaction per chunk, so that locks
+ * are held briefly and an interrupted run leaves every visit in exactly one of the
+ * tables. Visits without a date are never archived.
+ * </p>
+ */
+@Component
+class VisitArchiver {
+
+	static final int CHUNK_SIZE = 1000;
+
+	private static final Log logger = LogFactory.getLog(VisitArchiver.class);
+
+	private static final String COPY_VISITS = "INSERT INTO visits_archive (id, pet_id, visit_date, description) "
+			+ "SELECT id, pet_id, visit_date, description FROM visits WHERE id BETWEEN ? AND ? AND visit_date < ?";
+
+	// Only deletes what was copied, not visits committed in between
+	private static final String DELETE_VISITS = "DELETE FROM visits WHERE id BETWEEN ? AND ? AND visit_date < ? "
+			+ "AND EXISTS (SELECT 1 FROM visits_archive a WHERE a.id = visits.id AND a.visit_date = visits.visit_date)";
+
+	private final JdbcTemplate jdbcTemplate;
+
+	private final TransactionTemplate transactionTemplate;
+
+	@Value("${petclinic.visits.archive.horizon}")
+	private Period horizon;
+
+	VisitArchiver(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+	}
+
+	@Scheduled(cron = "${petclinic.visits.archive.cron}")
+	void archiveScheduled() {
+		LocalDate before = LocalDate.now().minus(this.horizon);
+		long moved = archive(before);
+		logger.info("Archived " + moved + " visits before " + before);
+	}
+
+	/**
+	 * Move the visits dated before the given day to the archive.
+	 * @param before the first day of the visits that are kept
+	 * @return the number of archived visits
+	 */
+	long archive(LocalDate before) {
+		long[] ids = this.jdbcTemplate.queryForObject("SELECT MIN(id), MAX(id) FROM visits WHERE visit_date < ?",
+				(rs, rowNum) -> new long[] { rs.getLong(1), rs.getLong(2) }, before);
+		long moved = 0;
+		// ids are positive, MIN and MAX are NULL (read as 0) if there is nothing to move
+		for (long from = ids[0]; ids[1] > 0 && from <= ids[1]; from += CHUNK_SIZE) {
+			long first = from;
+			long last = from + CHUNK_SIZE - 1;
+			moved += this.transactionTemplate.execute(status -> {
+				this.jdbcTemplate.update(COPY_VISITS, first, last, before);
+				return this.jdbcTemplate.update(DELETE_VISITS, first, last, before);
+			});
+		}
+		return moved;
+	}
+
+}
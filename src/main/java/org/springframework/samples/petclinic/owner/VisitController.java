@@ -18,12 +18,12 @@ package org.springframework.samples.petclinic.owner;
 import java.util.Map;
 import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.WebDataBinder;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.InitBinder;
-import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 
@@ -41,10 +41,20 @@ import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 @Controller
 class VisitController {
 
+	private static final String VIEWS_VISITS_CREATE_OR_UPDATE_FORM = "pets/createOrUpdateVisitForm";
+
+	private static final int RECENT_VISITS = 10;
+
 	private final OwnerRepository owners;
 
-	public VisitController(OwnerRepository owners) {
+	private final OwnerResolver ownerResolver;
+
+	private final VisitRepository visits;
+
+	public VisitController(OwnerRepository owners, OwnerResolver ownerResolver, VisitRepository visits) {
 		this.owners = owners;
+		this.ownerResolver = ownerResolver;
+		this.visits = visits;
 	}
 
 	@InitBinder
@@ -53,46 +63,45 @@ class VisitController {
 	}
 
 	/**
-	 * Called before each and every @RequestMapping annotated method. 2 goals: - Make sure
-	 * we always have fresh data - Since we do not use the session scope, make sure that
-	 * Pet object always has an id (Even though id is not part of the form fields)
-	 * @param petId
-	 * @return Pet
+	 * Put the owner, the pet and the pet's most recent visits into the model of the
+	 * form. Only the owner and its pets are loaded; the form lists no more than the
+	 * {@value #RECENT_VISITS} most recent visits of the pet, exposed as
+	 * <code>visits</code>.
 	 */
-	@ModelAttribute("visit")
-	public Visit loadPetWithVisit(@PathVariable("ownerId") int ownerId, @PathVariable("petId") int petId,
-			Map<String, Object> model) {
-		Optional<Owner> optionalOwner = owners.findById(ownerId);
+	private void populateForm(int ownerId, int petId, Map<String, Object> model) {
+		Optional<Owner> optionalOwner = this.ownerResolver.findWithPetsById(ownerId);
 		Owner owner = optionalOwner.orElseThrow(() -> new IllegalArgumentException(
 				"Owner not found with id: " + ownerId + ". Please ensure the ID is correct "));
 
 		Pet pet = owner.getPet(petId);
 		model.put("pet", pet);
 		model.put("owner", owner);
-
-		Visit visit = new Visit();
-		pet.addVisit(visit);
-		return visit;
+		model.put("visits", owners.findRecentVisitsByPetId(petId, Limit.of(RECENT_VISITS)));
 	}
 
-	// Spring MVC calls method loadPetWithVisit(...) before initNewVisitForm is
-	// called
 	@GetMapping("/owners/{ownerId}/pets/{petId}/visits/new")
-	public String initNewVisitForm() {
-		return "pets/createOrUpdateVisitForm";
+	public String initNewVisitForm(@PathVariable int ownerId, @PathVariable int petId, Map<String, Object> model) {
+		populateForm(ownerId, petId, model);
+		model.put("visit", new Visit());
+		return VIEWS_VISITS_CREATE_OR_UPDATE_FORM;
 	}
 
-	// Spring MVC calls method loadPetWithVisit(...) before processNewVisitForm is
-	// called
+	/**
+	 * Book a visit. A valid visit is appended with a single statement that also checks
+	 * that the pet belongs to the owner; neither the owner nor the pet is loaded.
+	 */
 	@PostMapping("/owners/{ownerId}/pets/{petId}/visits/new")
-	public String processNewVisitForm(@ModelAttribute Owner owner, @PathVariable int petId, @Valid Visit visit,
-			BindingResult result, RedirectAttributes redirectAttributes) {
+	public String processNewVisitForm(@PathVariable int ownerId, @PathVariable int petId, @Valid Visit visit,
+			BindingResult result, Map<String, Object> model, RedirectAttributes redirectAttributes) {
 		if (result.hasErrors()) {
-			return "pets/createOrUpdateVisitForm";
+			populateForm(ownerId, petId, model);
+			return VIEWS_VISITS_CREATE_OR_UPDATE_FORM;
 		}
 
-		owner.addVisit(petId, visit);
-		this.owners.save(owner);
+		if (this.visits.addVisit(ownerId, petId, visit.getDate(), visit.getDescription()) == 0) {
+			throw new IllegalArgumentException(
+					"Pet not found with id: " + petId + " for owner with id: " + ownerId + ".");
+		}
 		redirectAttributes.addFlashAttribute("message", "Your visit has been booked");
 		return "redirect:/owners/{ownerId}";
 	}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.springframework.samples.petclinic.owner.VisitImporter.ImportResult;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Bulk import of visits, e.g. the end-of-day files of partner clinics. The response
+ * counts the records that were rejected and lists the first of them, by line number; all
+ * other records are imported.
+ *
+ * @see VisitImporter
+ */
+@RestController
+class VisitImportController {
+
+	private final VisitImporter importer;
+
+	VisitImportController(VisitImporter importer) {
+		this.importer = importer;
+	}
+
+	@PostMapping(value = "/visits/import", consumes = "application/x-ndjson")
+	public ImportResult importNdjson(InputStream body) throws IOException {
+		return this.importer.importNdjson(body);
+	}
+
+	@PostMapping(value = "/visits/import", consumes = "text/csv")
+	public ImportResult importCsv(InputStream body) throws IOException {
+		return this.importer.importCsv(body);
+	}
+
+}
@@ -0,0 +1,325 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+/**
+ * Imports visits in bulk from newline delimited JSON or CSV.
+ * <p>
+ * Each record carries a {@code petId}, a {@code date} (ISO format, defaults to today like
+ * a new {@link Visit}) and a {@code description}. Records are validated with the
+ * constraints of {@link Visit} and checked for an existing pet; invalid records are
+ * reported with their line number and skipped, without affecting the others. Valid
+ * records are inserted through JDBC batches, one transaction per chunk of
+ * {@value #CHUNK_SIZE} records, so the input is never held in memory as a whole. If the
+ * database refuses a batch, its records are inserted one by one to reject only the
+ * failing ones; if the pets of a chunk cannot be looked up, the whole chunk is rejected.
+ * </p>
+ */
+@Component
+class VisitImporter {
+
+	static final int CHUNK_SIZE = 500;
+
+	static final int MAX_REJECTED = 100;
+
+	private static final String INSERT_VISIT = "INSERT INTO visits (pet_id, visit_date, description) VALUES (?, ?, ?)";
+
+	private final JdbcTemplate jdbcTemplate;
+
+	private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+	private final TransactionTemplate transactionTemplate;
+
+	private final ObjectMapper objectMapper;
+
+	private final Validator validator;
+
+	VisitImporter(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager, ObjectMapper objectMapper,
+			Validator validator) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.objectMapper = objectMapper;
+		this.validator = validator;
+	}
+
+	/**
+	 * Import newline delimited JSON, one object per line. Blank lines are ignored.
+	 */
+	ImportResult importNdjson(InputStream input) throws IOException {
+		return importLines(input, false, this::parseJson);
+	}
+
+	/**
+	 * Import CSV with the columns {@code petId,date,description}. A first line starting
+	 * with {@code petId} is taken as a header. Fields may be quoted with double quotes.
+	 */
+	ImportResult importCsv(InputStream input) throws IOException {
+		return importLines(input, true, this::parseCsv);
+	}
+
+	private ImportResult importLines(InputStream input, boolean skipHeader, RecordParser parser) throws IOException {
+		ImportResult result = new ImportResult();
+		List<Record> chunk = new ArrayList<>(CHUNK_SIZE);
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+			int lineNumber = 0;
+			String line;
+			while ((line = reader.readLine()) != null) {
+				lineNumber++;
+				if (line.isBlank() || (skipHeader && lineNumber == 1 && line.startsWith("petId"))) {
+					continue;
+				}
+				try {
+					Record record = parser.parse(lineNumber, line);
+					String violation = validate(record);
+					if (violation != null) {
+						result.reject(lineNumber, violation);
+						continue;
+					}
+					chunk.add(record);
+				}
+				catch (IllegalArgumentException | DateTimeParseException | JsonProcessingException ex) {
+					result.reject(lineNumber, "unreadable record: " + ex.getMessage());
+					continue;
+				}
+				if (chunk.size() == CHUNK_SIZE) {
+					insert(chunk, result);
+					chunk.clear();
+				}
+			}
+		}
+		insert(chunk, result);
+		return result;
+	}
+
+	private String validate(Record record) {
+		if (record.petId() == null) {
+			return "petId: must not be null";
+		}
+		Visit visit = new Visit();
+		if (record.date() != null) {
+			visit.setDate(record.date());
+		}
+		visit.setDescription(record.description());
+		Set<ConstraintViolation<Visit>> violations = this.validator.validate(visit);
+		if (violations.isEmpty()) {
+			return null;
+		}
+		return violations.stream()
+			.map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+			.sorted()
+			.collect(Collectors.joining(", "));
+	}
+
+	private void insert(List<Record> chunk, ImportResult result) {
+		if (chunk.isEmpty()) {
+			return;
+		}
+		Set<Integer> petIds = chunk.stream().map(Record::petId).collect(Collectors.toSet());
+		Set<Integer> existing;
+		try {
+			existing = new HashSet<>(this.namedJdbcTemplate.queryForList("SELECT id FROM pets WHERE id IN (:ids)",
+					Collections.singletonMap("ids", petIds), Integer.class));
+		}
+		catch (DataAccessException ex) {
+			// earlier chunks are committed, report this one instead of failing the import
+			for (Record record : chunk) {
+				result.reject(record.line(), "not inserted: " + ex.getMostSpecificCause().getMessage());
+			}
+			return;
+		}
+		List<Record> records = new ArrayList<>(chunk.size());
+		List<Object[]> rows = new ArrayList<>(chunk.size());
+		for (Record record : chunk) {
+			if (existing.contains(record.petId())) {
+				records.add(record);
+				rows.add(toRow(record));
+			}
+			else {
+				result.reject(record.line(), "petId: no pet with id " + record.petId());
+			}
+		}
+		try {
+			this.transactionTemplate.executeWithoutResult(status -> this.jdbcTemplate.batchUpdate(INSERT_VISIT, rows));
+			result.imported += rows.size();
+		}
+		catch (DataAccessException ex) {
+			// the batch has been rolled back, find the records that fail on their own
+			for (Record record : records) {
+				insert(record, result);
+			}
+		}
+	}
+
+	private void insert(Record record, ImportResult result) {
+		try {
+			this.transactionTemplate
+				.executeWithoutResult(status -> this.jdbcTemplate.update(INSERT_VISIT, toRow(record)));
+			result.imported++;
+		}
+		catch (DataAccessException ex) {
+			result.reject(record.line(), "not inserted: " + ex.getMostSpecificCause().getMessage());
+		}
+	}
+
+	private static Object[] toRow(Record record) {
+		LocalDate date = (record.date() != null) ? record.date() : LocalDate.now();
+		return new Object[] { record.petId(), Date.valueOf(date), record.description() };
+	}
+
+	private Record parseJson(int line, String text) throws JsonProcessingException {
+		JsonNode node = this.objectMapper.readTree(text);
+		if (!node.isObject()) {
+			throw new IllegalArgumentException("not a JSON object");
+		}
+		JsonNode petId = node.get("petId");
+		JsonNode date = node.get("date");
+		JsonNode description = node.get("description");
+		return new Record(line, (petId != null && !petId.isNull()) ? Integer.valueOf(petId.asText()) : null,
+				(date != null && !date.isNull()) ? LocalDate.parse(date.asText()) : null,
+				(description != null && !description.isNull()) ? description.asText() : null);
+	}
+
+	private Record parseCsv(int line, String text) {
+		List<String> fields = splitCsv(text);
+		if (fields.size() != 3) {
+			throw new IllegalArgumentException("expected 3 fields but found " + fields.size());
+		}
+		return new Record(line, fields.get(0).isBlank() ? null : Integer.valueOf(fields.get(0).trim()),
+				fields.get(1).isBlank() ? null : LocalDate.parse(fields.get(1).trim()), fields.get(2));
+	}
+
+	static List<String> splitCsv(String line) {
+		List<String> fields = new ArrayList<>();
+		StringBuilder field = new StringBuilder();
+		boolean quoted = false;
+		for (int i = 0; i < line.length(); i++) {
+			char c = line.charAt(i);
+			if (quoted) {
+				if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+					field.append('"');
+					i++;
+				}
+				else if (c == '"') {
+					quoted = false;
+				}
+				else {
+					field.append(c);
+				}
+			}
+			else if (c == '"') {
+				quoted = true;
+			}
+			else if (c == ',') {
+				fields.add(field.toString());
+				field.setLength(0);
+			}
+			else {
+				field.append(c);
+			}
+		}
+		if (quoted) {
+			throw new IllegalArgumentException("unterminated quoted field");
+		}
+		fields.add(field.toString());
+		return fields;
+	}
+
+	@FunctionalInterface
+	private interface RecordParser {
+
+		Record parse(int line, String text) throws JsonProcessingException;
+
+	}
+
+	private record Record(int line, Integer petId, LocalDate date, String description) {
+	}
+
+	/**
+	 * Outcome of an import: the number of imported visits and the rejected records. Only
+	 * the first {@value #MAX_REJECTED} rejected records are listed, the number of
+	 * {@link #getFailed() failed} records includes all of them.
+	 */
+	static class ImportResult {
+
+		private int imported;
+
+		private int failed;
+
+		// by line, as records without a pet are rejected after later lines of their chunk
+		private final TreeMap<Integer, RejectedRecord> rejected = new TreeMap<>();
+
+		void reject(int line, String reason) {
+			this.failed++;
+			this.rejected.put(line, new RejectedRecord(line, reason));
+			if (this.rejected.size() > MAX_REJECTED) {
+				this.rejected.pollLastEntry();
+			}
+		}
+
+		public int getImported() {
+			return this.imported;
+		}
+
+		public int getFailed() {
+			return this.failed;
+		}
+
+		public List<RejectedRecord> getRejected() {
+			return new ArrayList<>(this.rejected.values());
+		}
+
+	}
+
+	/**
+	 * A record that was not imported.
+	 * @param line the line number of the record, starting at 1
+	 * @param reason why the record was rejected
+	 */
+	record RejectedRecord(int line, String reason) {
+	}
+
+}
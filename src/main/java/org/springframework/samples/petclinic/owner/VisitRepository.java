@@ -0,0 +1,71 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import java.time.LocalDate;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.NativeQuery;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Repository class for <code>Visit</code> domain objects. Visits are otherwise managed
+ * as part of the {@link Owner} aggregate; this repository provides the write path for
+ * booking a visit without loading that aggregate, and the complete visit history
+ * including the archived visits that the aggregate no longer loads.
+ */
+public interface VisitRepository extends Repository<Visit, Integer> {
+
+	/**
+	 * Append a visit to the history of a pet, provided the pet belongs to the given
+	 * owner. Ownership is checked by the same statement through the primary key of the
+	 * pet, so booking a visit costs a single {@code INSERT} however long the history
+	 * already is.
+	 * @param ownerId the id of the owner
+	 * @param petId the id of the pet
+	 * @param date the date of the visit
+	 * @param description the description of the visit
+	 * @return the number of visits added, i.e. {@code 0} if the owner has no such pet
+	 */
+	@Modifying
+	@Transactional
+	@Query(value = "INSERT INTO visits (pet_id, visit_date, description) "
+			+ "SELECT p.id, :date, :description FROM pets p WHERE p.id = :petId AND p.owner_id = :ownerId",
+			nativeQuery = true)
+	int addVisit(@Param("ownerId") int ownerId, @Param("petId") int petId, @Param("date") LocalDate date,
+			@Param("description") String description);
+
+	/**
+	 * Retrieve a page of the complete visit history of a pet, newest first: the visits
+	 * loaded with the {@link Pet} as well as those moved to the archive by the
+	 * {@link VisitArchiver}.
+	 * @param petId the id of the pet
+	 * @param pageable the page to retrieve
+	 * @return the visits of the page
+	 */
+	@NativeQuery(sqlResultSetMapping = Visit.HISTORY_ENTRY_MAPPING, value = """
+			SELECT id, visit_date, description, FALSE AS archived FROM visits WHERE pet_id = :petId
+			UNION ALL
+			SELECT id, visit_date, description, TRUE AS archived FROM visits_archive WHERE pet_id = :petId
+			ORDER BY visit_date DESC, id DESC""")
+	Slice<VisitHistoryEntry> findHistoryByPetId(@Param("petId") int petId, Pageable pageable);
+
+}
@@ -16,17 +16,28 @@
 
 package org.springframework.samples.petclinic.system;
 
+import java.time.Duration;
+import java.util.OptionalLong;
+
+import javax.cache.CacheManager;
+
+import org.hibernate.cache.jcache.ConfigSettings;
 import org.springframework.boot.autoconfigure.cache.JCacheManagerCustomizer;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.samples.petclinic.owner.PetType;
+import org.springframework.samples.petclinic.vet.Specialty;
+import org.springframework.samples.petclinic.vet.Vet;
+import org.springframework.samples.petclinic.vet.VetCaches;
 
-import javax.cache.configuration.MutableConfiguration;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
 
 /**
  * Cache configuration intended for caches providing the JCache API. This configuration
- * creates the used cache for the application and enables statistics that become
- * accessible via JMX.
+ * creates the used caches for the application and enables statistics that become
+ * accessible via JMX and the actuator {@code cache.*} metrics.
  */
 @Configuration(proxyBeanMethods = false)
 @EnableCaching
@@ -34,20 +45,60 @@ class CacheConfiguration {
 
 	@Bean
 	public JCacheManagerCustomizer petclinicCacheConfigurationCustomizer() {
-		return cm -> cm.createCache("vets", cacheConfiguration());
+		return cm -> {
+			createCache(cm, VetCaches.VETS, cacheConfiguration(1, Duration.ofMinutes(10)));
+			createCache(cm, VetCaches.VET_PAGES, cacheConfiguration(100, Duration.ofMinutes(10)));
+			createCache(cm, VetCaches.VETS_JSON, cacheConfiguration(1, Duration.ofMinutes(10)));
+			createCache(cm, VetCaches.VET_PAGE_DIGESTS, cacheConfiguration(100, Duration.ofMinutes(10)));
+			createCache(cm, FragmentCacheDialect.CACHE, cacheConfiguration(1000, Duration.ofMinutes(10)));
+			// Second-level cache regions of the reference data entities
+			createCache(cm, PetType.class.getName(), cacheConfiguration(100, Duration.ofHours(1)));
+			createCache(cm, Specialty.class.getName(), cacheConfiguration(100, Duration.ofHours(1)));
+			createCache(cm, Vet.class.getName(), cacheConfiguration(1000, Duration.ofHours(1)));
+			createCache(cm, Vet.class.getName() + ".specialties", cacheConfiguration(1000, Duration.ofHours(1)));
+		};
+	}
+
+	/**
+	 * Create the given cache unless it exists already: application contexts in the same
+	 * JVM, such as the differently configured contexts of the integration tests, share
+	 * the default JCache {@link CacheManager}.
+	 */
+	private void createCache(CacheManager cm, String name,
+			javax.cache.configuration.Configuration<Object, Object> configuration) {
+		if (cm.getCache(name) == null) {
+			cm.createCache(name, configuration);
+		}
+	}
+
+	/**
+	 * Let Hibernate keep its second-level cache regions in the same JCache
+	 * {@link CacheManager} as the application caches, so they are bounded by the
+	 * configurations above and show up in the {@code cache.*} metrics as well.
+	 */
+	@Bean
+	public HibernatePropertiesCustomizer hibernateSecondLevelCacheCustomizer(CacheManager cacheManager) {
+		return properties -> properties.put(ConfigSettings.CACHE_MANAGER, cacheManager);
 	}
 
 	/**
-	 * Create a simple configuration that enable statistics via the JCache programmatic
-	 * configuration API.
+	 * Create a bounded configuration that enables statistics.
 	 * <p>
-	 * Within the configuration object that is provided by the JCache API standard, there
-	 * is only a very limited set of configuration options. The really relevant
-	 * configuration options (like the size limit) must be set via a configuration
-	 * mechanism that is provided by the selected JCache implementation.
+	 * The configuration object of the JCache API standard has no notion of a size limit,
+	 * so the Caffeine specific {@link CaffeineConfiguration} is used instead. Entries are
+	 * stored by reference: cached vets are never modified by their readers, and copying
+	 * them on every access would defeat the purpose of the cache.
+	 * @param maximumSize the maximum number of entries held by the cache
+	 * @param expireAfterWrite how long an entry is kept after it has been cached
 	 */
-	private javax.cache.configuration.Configuration<Object, Object> cacheConfiguration() {
-		return new MutableConfiguration<>().setStatisticsEnabled(true);
+	private javax.cache.configuration.Configuration<Object, Object> cacheConfiguration(long maximumSize,
+			Duration expireAfterWrite) {
+		CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+		configuration.setMaximumSize(OptionalLong.of(maximumSize));
+		configuration.setExpireAfterWrite(OptionalLong.of(expireAfterWrite.toNanos()));
+		configuration.setStoreByValue(false);
+		configuration.setStatisticsEnabled(true);
+		return configuration;
 	}
 
 }
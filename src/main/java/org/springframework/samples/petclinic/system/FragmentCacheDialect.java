@@ -0,0 +1,143 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.system;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.util.Set;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.context.ITemplateContext;
+import org.thymeleaf.dialect.AbstractProcessorDialect;
+import org.thymeleaf.engine.AttributeName;
+import org.thymeleaf.engine.TemplateManager;
+import org.thymeleaf.engine.TemplateModel;
+import org.thymeleaf.inline.NoOpInliner;
+import org.thymeleaf.model.IModel;
+import org.thymeleaf.model.IProcessableElementTag;
+import org.thymeleaf.processor.IProcessor;
+import org.thymeleaf.processor.element.AbstractAttributeModelProcessor;
+import org.thymeleaf.processor.element.IElementModelStructureHandler;
+import org.thymeleaf.standard.StandardDialect;
+import org.thymeleaf.standard.expression.StandardExpressions;
+import org.thymeleaf.templatemode.TemplateMode;
+
+/**
+ * Thymeleaf dialect caching the rendered markup of template blocks that look the same
+ * for many requests, such as the navigation bar or the vet table.
+ * <p>
+ * An element carrying a {@code pc:cache} attribute is rendered once per distinct value
+ * of the attribute's expression and locale, and then served from the {@value #CACHE}
+ * cache as a single text node, without evaluating any of its expressions again. The
+ * expression must therefore capture everything the block depends on besides the
+ * locale, e.g. the {@link org.springframework.samples.petclinic.vet.VetCaches#version()
+ * version} of the vets it lists:
+ * </p>
+ * <pre class="code">
+ * &lt;table pc:cache="|vets-${vetsVersion}-${currentPage}|"&gt;...&lt;/table&gt;
+ * </pre>
+ * <p>
+ * Cached blocks must not contain anything specific to a user or a session; links are
+ * safe as long as sessions are tracked by cookie only, so that no session id is encoded
+ * into them.
+ * </p>
+ */
+@Component
+public class FragmentCacheDialect extends AbstractProcessorDialect {
+
+	/**
+	 * Cache holding rendered template blocks.
+	 */
+	public static final String CACHE = "fragments";
+
+	private static final String PREFIX = "pc";
+
+	private final Cache cache;
+
+	/**
+	 * Create the dialect. Without a cache manager, e.g. in web slice tests, blocks are
+	 * rendered as if they had no {@code pc:cache} attribute.
+	 */
+	public FragmentCacheDialect(ObjectProvider<CacheManager> cacheManager) {
+		super("Fragment Cache", PREFIX, StandardDialect.PROCESSOR_PRECEDENCE);
+		CacheManager manager = cacheManager.getIfAvailable();
+		this.cache = (manager != null) ? manager.getCache(CACHE) : null;
+	}
+
+	@Override
+	public Set<IProcessor> getProcessors(String dialectPrefix) {
+		return Set.of(new CacheAttributeProcessor(dialectPrefix, this.cache));
+	}
+
+	private static class CacheAttributeProcessor extends AbstractAttributeModelProcessor {
+
+		// before any of the standard attributes, so that they all end up in the cache
+		private static final int PRECEDENCE = 0;
+
+		private final Cache cache;
+
+		CacheAttributeProcessor(String dialectPrefix, Cache cache) {
+			super(TemplateMode.HTML, dialectPrefix, null, false, "cache", true, PRECEDENCE, true);
+			this.cache = cache;
+		}
+
+		@Override
+		protected void doProcess(ITemplateContext context, IModel model, AttributeName attributeName,
+				String attributeValue, IElementModelStructureHandler structureHandler) {
+			if (this.cache == null) {
+				return;
+			}
+			Object key = StandardExpressions.getExpressionParser(context.getConfiguration())
+				.parseExpression(context, attributeValue)
+				.execute(context);
+			String cacheKey = context.getTemplateData().getTemplate() + "::" + key + "::"
+					+ context.getLocale().toLanguageTag();
+			String markup = this.cache.get(cacheKey, String.class);
+			if (markup == null) {
+				markup = render(context, model, attributeName);
+				this.cache.put(cacheKey, markup);
+			}
+			model.reset();
+			model.add(context.getModelFactory().createText(markup));
+			// the markup is final, expressions in it must not be inlined
+			structureHandler.setInliner(NoOpInliner.INSTANCE);
+		}
+
+		private static String render(ITemplateContext context, IModel model, AttributeName attributeName) {
+			IProcessableElementTag element = (IProcessableElementTag) model.get(0);
+			model.replace(0, context.getModelFactory().removeAttribute(element, attributeName));
+			StringWriter template = new StringWriter();
+			try {
+				model.write(template);
+			}
+			catch (IOException ex) {
+				throw new UncheckedIOException(ex);
+			}
+			TemplateManager templateManager = context.getConfiguration().getTemplateManager();
+			TemplateModel parsed = templateManager.parseString(context.getTemplateData(), template.toString(),
+					element.getLine(), element.getCol(), context.getTemplateMode(), true);
+			StringWriter markup = new StringWriter();
+			templateManager.process(parsed, context, markup);
+			return markup.toString();
+		}
+
+	}
+
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.system;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Per-request JDBC metrics, to spot endpoints that issue more statements than they
+ * should (N+1 selects, repeated lookups). The metrics are available from the actuator
+ * {@code metrics} endpoint, e.g.
+ * {@code /actuator/metrics/petclinic.jdbc.statements?tag=uri:/owners/{ownerId}}.
+ * <p>
+ * Every statement and every fetched row goes through the instrumented data source, and
+ * every mapping gets meters of its own, so the metrics are only collected when
+ * {@code petclinic.jdbc.metrics.enabled} is set, e.g. while hunting a regression or in
+ * the tests that check statement budgets.
+ * </p>
+ *
+ * @see JdbcMetricsInterceptor
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "petclinic.jdbc.metrics.enabled", havingValue = "true")
+class JdbcMetricsConfiguration {
+
+	@Bean
+	static JdbcStatisticsBeanPostProcessor jdbcStatisticsBeanPostProcessor() {
+		return new JdbcStatisticsBeanPostProcessor();
+	}
+
+	@Bean
+	WebMvcConfigurer jdbcMetricsConfigurer(MeterRegistry registry) {
+		return new WebMvcConfigurer() {
+
+			@Override
+			public void addInterceptors(InterceptorRegistry interceptors) {
+				interceptors.addInterceptor(new JdbcMetricsInterceptor(registry));
+			}
+
+		};
+	}
+
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.system;
+
+import org.springframework.samples.petclinic.system.JdbcStatistics.Recording;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Records the {@link JdbcStatistics} of every request handled by a controller method,
+ * tagged with the HTTP method and the request mapping pattern (for example
+ * {@code /owners/{ownerId}/pets/new}):
+ * <ul>
+ * <li>{@code petclinic.jdbc.statements}, the statements executed per request</li>
+ * <li>{@code petclinic.jdbc.rows}, the rows fetched per request</li>
+ * <li>{@code petclinic.jdbc.time}, the time per request spent in the JDBC driver</li>
+ * </ul>
+ * Only the work done on the request thread is recorded: not the work of a streamed
+ * response body, for example.
+ */
+class JdbcMetricsInterceptor implements AsyncHandlerInterceptor {
+
+	private static final String RECORDING_ATTRIBUTE = JdbcMetricsInterceptor.class.getName() + ".recording";
+
+	private final MeterRegistry registry;
+
+	JdbcMetricsInterceptor(MeterRegistry registry) {
+		this.registry = registry;
+	}
+
+	@Override
+	public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+		if (handler instanceof HandlerMethod) {
+			request.setAttribute(RECORDING_ATTRIBUTE, JdbcStatistics.start());
+		}
+		return true;
+	}
+
+	@Override
+	public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+			Object handler) {
+		// The request thread is released, the async dispatch records separately
+		Recording recording = (Recording) request.getAttribute(RECORDING_ATTRIBUTE);
+		if (recording != null) {
+			recording.close();
+			request.removeAttribute(RECORDING_ATTRIBUTE);
+		}
+	}
+
+	@Override
+	public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+			Exception ex) {
+		Recording recording = (Recording) request.getAttribute(RECORDING_ATTRIBUTE);
+		if (recording == null) {
+			return;
+		}
+		recording.close();
+		request.removeAttribute(RECORDING_ATTRIBUTE);
+		Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+		Tags tags = Tags.of("method", request.getMethod(), "uri", (pattern != null) ? pattern.toString() : "UNKNOWN");
+		DistributionSummary.builder("petclinic.jdbc.statements")
+			.description("JDBC statements executed per request")
+			.tags(tags)
+			.register(this.registry)
+			.record(recording.getStatementCount());
+		DistributionSummary.builder("petclinic.jdbc.rows")
+			.description("Rows fetched over JDBC per request")
+			.tags(tags)
+			.register(this.registry)
+			.record(recording.getRowCount());
+		Timer.builder("petclinic.jdbc.time")
+			.description("Time spent in the JDBC driver per request")
+			.tags(tags)
+			.register(this.registry)
+			.record(recording.getTime());
+	}
+
+}
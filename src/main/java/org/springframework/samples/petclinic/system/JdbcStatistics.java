@@ -0,0 +1,224 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.system;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.springframework.util.ClassUtils;
+
+/**
+ * Statistics about the JDBC work of the current thread: how many statements were
+ * executed, how many rows were fetched and how long the driver took for both.
+ * <p>
+ * Only {@link #instrument(DataSource) instrumented} data sources contribute, and only
+ * while a {@link Recording} has been {@link #start() started} on the thread. Recordings
+ * can be nested, in which case the enclosing recordings see the same work.
+ * </p>
+ *
+ * @see JdbcStatisticsBeanPostProcessor
+ */
+public final class JdbcStatistics {
+
+	private static final ThreadLocal<Recording> currentRecording = new ThreadLocal<>();
+
+	private JdbcStatistics() {
+	}
+
+	/**
+	 * Start recording the JDBC work of the current thread, until the returned recording
+	 * is closed.
+	 */
+	public static Recording start() {
+		Recording recording = new Recording(currentRecording.get());
+		currentRecording.set(recording);
+		return recording;
+	}
+
+	/**
+	 * Wrap the given data source so that statements executed on its connections are
+	 * counted by the recording of the executing thread. Apart from that the returned data
+	 * source behaves like, and implements the same interfaces as, the given one.
+	 */
+	public static DataSource instrument(DataSource dataSource) {
+		return (DataSource) proxy(dataSource, ClassUtils.getAllInterfaces(dataSource),
+				JdbcStatistics::invokeOnDataSource);
+	}
+
+	private static Object invokeOnDataSource(Object target, Method method, Object[] args) throws Throwable {
+		Object result = invoke(target, method, args);
+		if (result instanceof Connection connection) {
+			return proxy(connection, new Class<?>[] { Connection.class }, JdbcStatistics::invokeOnConnection);
+		}
+		return result;
+	}
+
+	private static Object invokeOnConnection(Object target, Method method, Object[] args) throws Throwable {
+		Object result = invoke(target, method, args);
+		if (result instanceof Statement statement) {
+			// Statement, PreparedStatement or CallableStatement
+			return proxy(statement, new Class<?>[] { method.getReturnType() }, JdbcStatistics::invokeOnStatement);
+		}
+		return result;
+	}
+
+	private static Object invokeOnStatement(Object target, Method method, Object[] args) throws Throwable {
+		Recording recording = currentRecording.get();
+		Object result;
+		if (recording != null && method.getName().startsWith("execute")) {
+			long start = System.nanoTime();
+			try {
+				result = invoke(target, method, args);
+			}
+			finally {
+				recording.statementExecuted(System.nanoTime() - start);
+			}
+		}
+		else {
+			result = invoke(target, method, args);
+		}
+		if (result instanceof ResultSet resultSet) {
+			return proxy(resultSet, new Class<?>[] { ResultSet.class }, JdbcStatistics::invokeOnResultSet);
+		}
+		return result;
+	}
+
+	private static Object invokeOnResultSet(Object target, Method method, Object[] args) throws Throwable {
+		Recording recording = currentRecording.get();
+		if (recording == null || !method.getName().equals("next")) {
+			return invoke(target, method, args);
+		}
+		long start = System.nanoTime();
+		boolean hasRow = (Boolean) invoke(target, method, args);
+		recording.rowFetched(hasRow, System.nanoTime() - start);
+		return hasRow;
+	}
+
+	private static Object proxy(Object target, Class<?>[] interfaces, TargetInvocationHandler handler) {
+		InvocationHandler invocationHandler = (proxy, method, args) -> {
+			if (method.getName().equals("equals")) {
+				return proxy == args[0];
+			}
+			if (method.getName().equals("hashCode")) {
+				return System.identityHashCode(proxy);
+			}
+			return handler.invoke(target, method, args);
+		};
+		return Proxy.newProxyInstance(JdbcStatistics.class.getClassLoader(), interfaces, invocationHandler);
+	}
+
+	private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+		try {
+			return method.invoke(target, args);
+		}
+		catch (InvocationTargetException ex) {
+			throw ex.getTargetException();
+		}
+	}
+
+	@FunctionalInterface
+	private interface TargetInvocationHandler {
+
+		Object invoke(Object target, Method method, Object[] args) throws Throwable;
+
+	}
+
+	/**
+	 * The JDBC work of a thread between {@link JdbcStatistics#start()} and
+	 * {@link #close()}.
+	 */
+	public static final class Recording implements AutoCloseable {
+
+		private final Recording enclosing;
+
+		private int statementCount;
+
+		private long rowCount;
+
+		private long nanos;
+
+		private Recording(Recording enclosing) {
+			this.enclosing = enclosing;
+		}
+
+		/**
+		 * The number of statement executions, a batch counting as one.
+		 */
+		public int getStatementCount() {
+			return this.statementCount;
+		}
+
+		/**
+		 * The number of rows read from result sets.
+		 */
+		public long getRowCount() {
+			return this.rowCount;
+		}
+
+		/**
+		 * The time spent executing statements and fetching their rows.
+		 */
+		public Duration getTime() {
+			return Duration.ofNanos(this.nanos);
+		}
+
+		private void statementExecuted(long nanos) {
+			for (Recording recording = this; recording != null; recording = recording.enclosing) {
+				recording.statementCount++;
+				recording.nanos += nanos;
+			}
+		}
+
+		private void rowFetched(boolean hasRow, long nanos) {
+			for (Recording recording = this; recording != null; recording = recording.enclosing) {
+				if (hasRow) {
+					recording.rowCount++;
+				}
+				recording.nanos += nanos;
+			}
+		}
+
+		/**
+		 * Stop recording and make the enclosing recording, if any, current again.
+		 */
+		@Override
+		public void close() {
+			if (currentRecording.get() == this) {
+				if (this.enclosing != null) {
+					currentRecording.set(this.enclosing);
+				}
+				else {
+					currentRecording.remove();
+				}
+			}
+		}
+
+		@Override
+		public String toString() {
+			return this.statementCount + " statements, " + this.rowCount + " rows in " + getTime().toMillis() + " ms";
+		}
+
+	}
+
+}
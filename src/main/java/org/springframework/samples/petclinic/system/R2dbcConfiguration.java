@@ -0,0 +1,138 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.system;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.jdbc.JdbcConnectionDetails;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.lang.Nullable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.binding.BindMarkersFactory;
+import org.springframework.util.StringUtils;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryMetadata;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive access to the same database as the JPA repositories, used by the read-only
+ * reactive API.
+ * <p>
+ * Rather than configuring a second set of connection settings, the R2DBC URL is derived
+ * from the JDBC connection details, so the reactive endpoints always see the data of the
+ * active database profile (including the generated in-memory H2 database). Writes stay
+ * with JPA: no reactive transaction manager is configured.
+ * </p>
+ * <p>
+ * Databases without a known R2DBC equivalent, such as HSQLDB or an H2 file database,
+ * do not prevent the application from starting: the reactive endpoints fail instead.
+ * </p>
+ */
+@Configuration(proxyBeanMethods = false)
+class R2dbcConfiguration implements DisposableBean {
+
+	private static final Log logger = LogFactory.getLog(R2dbcConfiguration.class);
+
+	private volatile ConnectionPool connectionPool;
+
+	/**
+	 * The client for the reactive repositories. The {@link ConnectionFactory} is
+	 * deliberately not exposed as a bean: Spring Boot takes such a bean as a sign that the
+	 * application is reactive only and would not configure the JDBC {@code DataSource}.
+	 */
+	@Bean
+	DatabaseClient databaseClient(JdbcConnectionDetails connectionDetails) {
+		String r2dbcUrl = r2dbcUrl(connectionDetails.getJdbcUrl());
+		if (r2dbcUrl == null) {
+			logger.warn("Reactive endpoints disabled, no R2DBC equivalent known for JDBC URL "
+					+ connectionDetails.getJdbcUrl());
+			return DatabaseClient.builder()
+				.connectionFactory(new UnavailableConnectionFactory(connectionDetails.getJdbcUrl()))
+				.bindMarkers(BindMarkersFactory.anonymous("?"))
+				.build();
+		}
+		ConnectionFactoryOptions.Builder options = ConnectionFactoryOptions.parse(r2dbcUrl).mutate();
+		if (StringUtils.hasText(connectionDetails.getUsername())) {
+			options.option(ConnectionFactoryOptions.USER, connectionDetails.getUsername());
+		}
+		if (StringUtils.hasText(connectionDetails.getPassword())) {
+			options.option(ConnectionFactoryOptions.PASSWORD, connectionDetails.getPassword());
+		}
+		ConnectionFactory connectionFactory = ConnectionFactories.get(options.build());
+		this.connectionPool = new ConnectionPool(ConnectionPoolConfiguration.builder(connectionFactory).build());
+		return DatabaseClient.create(this.connectionPool);
+	}
+
+	@Override
+	public void destroy() {
+		ConnectionPool connectionPool = this.connectionPool;
+		if (connectionPool != null) {
+			connectionPool.dispose();
+		}
+	}
+
+	/**
+	 * Translate a JDBC URL of one of the supported databases into an R2DBC URL, e.g.
+	 * {@code jdbc:postgresql://localhost/petclinic} into
+	 * {@code r2dbc:postgresql://localhost/petclinic} and {@code jdbc:h2:mem:petclinic}
+	 * into {@code r2dbc:h2:mem:///petclinic}.
+	 * @return the R2DBC URL, or {@code null} if the database is not supported
+	 */
+	@Nullable
+	static String r2dbcUrl(String jdbcUrl) {
+		if (jdbcUrl.startsWith("jdbc:h2:mem:")) {
+			return "r2dbc:h2:mem:///" + jdbcUrl.substring("jdbc:h2:mem:".length());
+		}
+		if (jdbcUrl.startsWith("jdbc:postgresql:") || jdbcUrl.startsWith("jdbc:mysql:")) {
+			return "r2dbc:" + jdbcUrl.substring("jdbc:".length());
+		}
+		return null;
+	}
+
+	/**
+	 * Stands in for the connection factory of a database without R2DBC support, failing
+	 * every attempt to connect.
+	 */
+	private static final class UnavailableConnectionFactory implements ConnectionFactory {
+
+		private final String jdbcUrl;
+
+		UnavailableConnectionFactory(String jdbcUrl) {
+			this.jdbcUrl = jdbcUrl;
+		}
+
+		@Override
+		public Publisher<? extends Connection> create() {
+			return Mono.error(new IllegalStateException("No R2DBC equivalent known for JDBC URL " + this.jdbcUrl));
+		}
+
+		@Override
+		public ConnectionFactoryMetadata getMetadata() {
+			return () -> "Unavailable";
+		}
+
+	}
+
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.system;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sql.DataSource;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * The connection pool of a read replica, together with a guard that measures how far the
+ * replica lags behind the primary.
+ * <p>
+ * While running, the lag is measured at a fixed interval with a query returning the lag
+ * in seconds. The replica is only {@link #isUsable() usable} while the last measurement
+ * succeeded and was within the maximum lag, so reads fall back to the primary when the
+ * replica is unreachable or replication stalls, and before the first measurement. Both
+ * the lag and the pool (tagged {@code pool} with its pool name) are published as
+ * metrics.
+ * </p>
+ * <p>
+ * Each measurement also tells up to which point in time the replica has replayed the
+ * primary. After a transaction has written through this instance, reads go to the
+ * primary until a measurement shows that the replica has replayed that commit: the
+ * caches emptied by the commit (the vet caches, the pet types and the second level
+ * cache) must not be refilled with what the replica still holds from before.
+ * </p>
+ *
+ * @see ReadReplicaRoutingDataSource
+ */
+class ReadReplica implements SmartLifecycle, MeterBinder, AutoCloseable {
+
+	private static final Log logger = LogFactory.getLog(ReadReplica.class);
+
+	private final HikariDataSource dataSource;
+
+	private final JdbcTemplate jdbcTemplate;
+
+	private final String lagQuery;
+
+	private final Duration maxLag;
+
+	private final Duration checkInterval;
+
+	private volatile ScheduledExecutorService executor;
+
+	private volatile double lagSeconds = Double.NaN;
+
+	private volatile boolean usable;
+
+	private volatile boolean checked;
+
+	private volatile long replayedUntil = Long.MIN_VALUE;
+
+	private final AtomicInteger committing = new AtomicInteger();
+
+	private final AtomicLong lastCommit = new AtomicLong(Long.MIN_VALUE);
+
+	ReadReplica(HikariDataSource dataSource, String lagQuery, Duration maxLag, Duration checkInterval) {
+		this.dataSource = dataSource;
+		this.jdbcTemplate = new JdbcTemplate(dataSource);
+		this.lagQuery = lagQuery;
+		this.maxLag = maxLag;
+		this.checkInterval = checkInterval;
+	}
+
+	DataSource getDataSource() {
+		return this.dataSource;
+	}
+
+	/**
+	 * Whether reads may currently be sent to the replica: its lag is within bounds, and it
+	 * has replayed every transaction committed through this instance.
+	 */
+	boolean isUsable() {
+		return this.usable && this.committing.get() == 0 && this.replayedUntil >= this.lastCommit.get();
+	}
+
+	/**
+	 * Announce that a transaction that wrote to the primary is about to commit. Reads
+	 * go to the primary until the replica has replayed it.
+	 * @see #commitEnded(boolean)
+	 */
+	void commitStarted() {
+		this.committing.incrementAndGet();
+	}
+
+	/**
+	 * Announce the completion of a transaction announced by {@link #commitStarted()}.
+	 * @param committed whether the transaction was committed or rolled back
+	 */
+	void commitEnded(boolean committed) {
+		if (committed) {
+			this.lastCommit.accumulateAndGet(System.currentTimeMillis(), Math::max);
+		}
+		this.committing.decrementAndGet();
+	}
+
+	/**
+	 * The lag measured last, in seconds, or {@code NaN} if it could not be measured.
+	 */
+	double getLagSeconds() {
+		return this.lagSeconds;
+	}
+
+	void checkLag() {
+		long started = System.currentTimeMillis();
+		double lag;
+		try {
+			Number result = this.jdbcTemplate.queryForObject(this.lagQuery, Number.class);
+			lag = (result != null) ? result.doubleValue() : 0;
+		}
+		catch (RuntimeException ex) {
+			if (this.usable || !this.checked) {
+				logger.warn("Sending reads to the primary, the lag of replica " + this.dataSource.getPoolName()
+						+ " cannot be measured", ex);
+			}
+			this.lagSeconds = Double.NaN;
+			this.usable = false;
+			this.checked = true;
+			return;
+		}
+		boolean usable = lag <= this.maxLag.toMillis() / 1000.0;
+		if (usable != this.usable || !this.checked) {
+			logger.info((usable ? "Sending reads to replica " : "Sending reads to the primary, replica ")
+					+ this.dataSource.getPoolName() + " lags " + lag + "s");
+		}
+		this.lagSeconds = lag;
+		this.replayedUntil = started - (long) Math.ceil(lag * 1000);
+		this.usable = usable;
+		this.checked = true;
+	}
+
+	@Override
+	public void start() {
+		ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "replica-lag-check");
+			thread.setDaemon(true);
+			return thread;
+		});
+		executor.scheduleWithFixedDelay(this::checkLag, 0, this.checkInterval.toMillis(), TimeUnit.MILLISECONDS);
+		this.executor = executor;
+	}
+
+	@Override
+	public void stop() {
+		ScheduledExecutorService executor = this.executor;
+		if (executor != null) {
+			executor.shutdownNow();
+			this.executor = null;
+		}
+		this.usable = false;
+	}
+
+	@Override
+	public boolean isRunning() {
+		return this.executor != null;
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		this.dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+		Gauge.builder("petclinic.datasource.replica.lag", this, ReadReplica::getLagSeconds)
+			.description("Replication lag of the read replica, NaN while it cannot be measured")
+			.baseUnit("seconds")
+			.tag("pool", this.dataSource.getPoolName())
+			.register(registry);
+		Gauge.builder("petclinic.datasource.replica.usable", this, replica -> replica.isUsable() ? 1 : 0)
+			.description("Whether reads are sent to the read replica")
+			.tag("pool", this.dataSource.getPoolName())
+			.register(registry);
+	}
+
+	@Override
+	public void close() {
+		this.dataSource.close();
+	}
+
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.system;
+
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Sends read-only transactions to a read replica when the {@code replica} profile is
+ * active, e.g. {@code --spring.profiles.active=postgres,replica}. See
+ * {@code application-replica.properties} for the available settings.
+ * <p>
+ * The primary data source is still the one configured by Spring Boot (including its
+ * metrics, health check and the Flyway migrations), it is only wrapped into a
+ * {@link ReadReplicaRoutingDataSource}. The replica gets a pool of its own, configured
+ * with the {@code petclinic.datasource.replica} properties. Like the connection factory
+ * in {@link R2dbcConfiguration}, that pool is deliberately not exposed as a
+ * {@link DataSource} bean: Spring Boot would no longer configure the primary.
+ * </p>
+ * <p>
+ * Requests that may write are pinned to the primary by the {@link WriteRequestFilter}.
+ * </p>
+ */
+@Configuration(proxyBeanMethods = false)
+@Profile("replica")
+class ReadReplicaConfiguration {
+
+	private static final String PREFIX = "petclinic.datasource.replica";
+
+	@Bean(destroyMethod = "close")
+	ReadReplica readReplica(Environment environment, @Value("${" + PREFIX + ".lag-query}") String lagQuery,
+			@Value("${" + PREFIX + ".max-lag}") Duration maxLag,
+			@Value("${" + PREFIX + ".lag-check-interval}") Duration checkInterval) {
+		Binder binder = Binder.get(environment);
+		HikariDataSource dataSource = binder.bindOrCreate(PREFIX, DataSourceProperties.class)
+			.initializeDataSourceBuilder()
+			.type(HikariDataSource.class)
+			.build();
+		binder.bind(PREFIX + ".hikari", Bindable.ofInstance(dataSource));
+		dataSource.setReadOnly(true);
+		return new ReadReplica(dataSource, lagQuery, maxLag, checkInterval);
+	}
+
+	@Bean
+	WriteRequestFilter writeRequestFilter() {
+		return new WriteRequestFilter();
+	}
+
+	/**
+	 * Route the primary pool. Ordered, so that it runs before the
+	 * {@link JdbcStatisticsBeanPostProcessor} and the statements sent to both databases
+	 * are counted.
+	 */
+	@Bean
+	static RoutingPostProcessor readReplicaRoutingPostProcessor(ObjectProvider<ReadReplica> replica) {
+		return new RoutingPostProcessor(replica);
+	}
+
+	static final class RoutingPostProcessor implements BeanPostProcessor, Ordered {
+
+		private final ObjectProvider<ReadReplica> replica;
+
+		RoutingPostProcessor(ObjectProvider<ReadReplica> replica) {
+			this.replica = replica;
+		}
+
+		@Override
+		public Object postProcessAfterInitialization(Object bean, String beanName) {
+			if (bean instanceof HikariDataSource primary) {
+				return ReadReplicaRoutingDataSource.lazy(primary, this.replica.getObject());
+			}
+			return bean;
+		}
+
+		@Override
+		public int getOrder() {
+			return Ordered.HIGHEST_PRECEDENCE;
+		}
+
+	}
+
+}
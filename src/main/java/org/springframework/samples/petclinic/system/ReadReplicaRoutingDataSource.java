@@ -0,0 +1,125 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.system;
+
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.core.NamedThreadLocal;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Sends the connections of read-only transactions to the {@link ReadReplica} while it is
+ * usable, and everything else (writes, reads in read-write transactions and work outside
+ * of transactions, such as the schema migrations) to the primary. Code that reads in
+ * order to write, like a handler loading an aggregate that it then saves, can
+ * {@link #pinToPrimary() pin} its thread to the primary, so that it does not write back
+ * what it read from a lagging replica.
+ * <p>
+ * The commits of read-write transactions are reported to the replica, which is not
+ * {@link ReadReplica#isUsable() usable} until it has replayed them. Writes outside of
+ * transactions are not tracked.
+ * </p>
+ * <p>
+ * The transaction managers fetch the connection before the read-only flag of the
+ * transaction is exposed, so the routing only works behind a
+ * {@link LazyConnectionDataSourceProxy} as created by {@link #lazy(DataSource,
+ * ReadReplica)}, which defers fetching the connection to the first statement.
+ * </p>
+ */
+class ReadReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+	private enum Target {
+
+		PRIMARY, REPLICA
+
+	}
+
+	private static final ThreadLocal<Boolean> pinnedToPrimary = new NamedThreadLocal<>("Pinned to primary");
+
+	private final ReadReplica replica;
+
+	private ReadReplicaRoutingDataSource(DataSource primary, ReadReplica replica) {
+		this.replica = replica;
+		setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica.getDataSource()));
+		setDefaultTargetDataSource(primary);
+		setLenientFallback(false);
+		afterPropertiesSet();
+	}
+
+	/**
+	 * Create a data source routing between the given primary and replica.
+	 */
+	static DataSource lazy(DataSource primary, ReadReplica replica) {
+		return new LazyConnectionDataSourceProxy(new ReadReplicaRoutingDataSource(primary, replica));
+	}
+
+	/**
+	 * Send all connections fetched by the current thread to the primary, including those
+	 * of read-only transactions, until {@link #unpin()}.
+	 */
+	static void pinToPrimary() {
+		pinnedToPrimary.set(Boolean.TRUE);
+	}
+
+	static void unpin() {
+		pinnedToPrimary.remove();
+	}
+
+	@Override
+	protected Object determineCurrentLookupKey() {
+		if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+			return (pinnedToPrimary.get() == null && this.replica.isUsable()) ? Target.REPLICA : Target.PRIMARY;
+		}
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new CommitTracker(this.replica));
+		}
+		return Target.PRIMARY;
+	}
+
+	/**
+	 * Reports the commit of a read-write transaction to the replica.
+	 */
+	private static final class CommitTracker implements TransactionSynchronization {
+
+		private final ReadReplica replica;
+
+		private boolean committing;
+
+		CommitTracker(ReadReplica replica) {
+			this.replica = replica;
+		}
+
+		@Override
+		public void beforeCommit(boolean readOnly) {
+			this.replica.commitStarted();
+			this.committing = true;
+		}
+
+		@Override
+		public void afterCompletion(int status) {
+			if (this.committing) {
+				this.replica.commitEnded(status == STATUS_COMMITTED);
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,266 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.system;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import org.springframework.boot.jdbc.DatabaseDriver;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+
+/**
+ * Generates synthetic owners, pets and visits on top of the sample data, for load tests
+ * and benchmarks that need more than the handful of rows of the sample data migration.
+ * <p>
+ * Last names follow a Zipf-like distribution over common surnames, so that prefix
+ * searches see both very selective and very unselective prefixes, as with real data.
+ * Rows are written with explicit ids through JDBC batches of multi-row
+ * {@code INSERT ... VALUES (...), (...)} statements, which H2, HSQLDB, MySQL and
+ * PostgreSQL all support; the identity columns are moved past the generated ids at the
+ * end. The output only depends on the given random seed.
+ * </p>
+ */
+public class SampleDataGenerator {
+
+	private static final String[] LAST_NAMES = { "Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia",
+			"Miller", "Davis", "Rodriguez", "Martinez", "Hernandez", "Lopez", "Gonzalez", "Wilson", "Anderson",
+			"Thomas", "Taylor", "Moore", "Jackson", "Martin", "Lee", "Perez", "Thompson", "White", "Harris",
+			"Sanchez", "Clark", "Ramirez", "Lewis", "Robinson", "Walker", "Young", "Allen", "King", "Wright",
+			"Scott", "Torres", "Nguyen", "Hill", "Flores", "Green", "Adams", "Nelson", "Baker", "Hall", "Rivera",
+			"Campbell", "Mitchell", "Carter", "Roberts", "Escobito", "McTavish", "Schroeder", "Franklin" };
+
+	private static final String[] FIRST_NAMES = { "James", "Mary", "John", "Patricia", "Robert", "Jennifer",
+			"Michael", "Linda", "David", "Elizabeth", "William", "Barbara", "Richard", "Susan", "Joseph", "Jessica",
+			"Thomas", "Sarah", "Carlos", "Maria", "Jeff", "Eduardo", "Harold", "Betty", "Peter", "Jean", "George",
+			"Maya" };
+
+	private static final String[] CITIES = { "Madison", "Sun Prairie", "McFarland", "Windsor", "Monona",
+			"Waunakee", "Middleton", "Verona" };
+
+	private static final String[] STREETS = { "Liberty St.", "Main St.", "Lake St.", "Grand Ave.", "Oak Blvd.",
+			"Washington Ave.", "Maple Dr.", "Park Rd." };
+
+	private static final String[] PET_NAMES = { "Leo", "Basil", "Rosy", "Jewel", "Iggy", "George", "Samantha",
+			"Max", "Lucky", "Mulligan", "Freddy", "Sly", "Bella", "Luna", "Charlie", "Daisy", "Milo", "Coco",
+			"Rocky", "Ruby", "Oscar", "Teddy", "Willow", "Pepper" };
+
+	private static final String[] DESCRIPTIONS = { "rabies shot", "neutered", "spayed", "annual checkup",
+			"dental cleaning", "vaccination", "skin allergy", "ear infection", "limping", "weight control" };
+
+	private final JdbcTemplate jdbcTemplate;
+
+	private final int rowsPerStatement;
+
+	private final int statementsPerBatch;
+
+	/**
+	 * Create a new generator.
+	 * @param jdbcTemplate the template to write with
+	 * @param rowsPerStatement the number of rows per {@code INSERT} statement
+	 * @param statementsPerBatch the number of statements per JDBC batch
+	 */
+	public SampleDataGenerator(JdbcTemplate jdbcTemplate, int rowsPerStatement, int statementsPerBatch) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.rowsPerStatement = rowsPerStatement;
+		this.statementsPerBatch = statementsPerBatch;
+	}
+
+	/**
+	 * Add the given number of owners, each with the same number of pets and visits.
+	 * @param owners the number of owners to add
+	 * @param petsPerOwner the number of pets of each owner
+	 * @param visitsPerPet the number of visits of each pet
+	 * @param seed the seed of the random data
+	 * @return what has been generated
+	 */
+	public Result generate(int owners, int petsPerOwner, int visitsPerPet, long seed) {
+		SplittableRandom random = new SplittableRandom(seed);
+		double[] lastNameWeights = zipf(LAST_NAMES.length);
+		List<Integer> typeIds = this.jdbcTemplate.queryForList("SELECT id FROM types ORDER BY id", Integer.class);
+		int firstOwnerId = nextId("owners");
+		int ownerId = firstOwnerId;
+		int petId = nextId("pets");
+		// archived visits keep their ids, which must not be handed out again
+		int visitId = Math.max(nextId("visits"), nextId("visits_archive"));
+		LocalDate today = LocalDate.now();
+
+		RowWriter ownerRows = new RowWriter(
+				"INSERT INTO owners (id, first_name, last_name, address, city, telephone) VALUES ", 6, null);
+		RowWriter petRows = new RowWriter("INSERT INTO pets (id, name, birth_date, type_id, owner_id) VALUES ", 5,
+				ownerRows);
+		RowWriter visitRows = new RowWriter("INSERT INTO visits (id, pet_id, visit_date, description) VALUES ", 4,
+				petRows);
+		for (int o = 0; o < owners; o++, ownerId++) {
+			ownerRows.add(ownerId, pick(random, FIRST_NAMES), LAST_NAMES[pickWeighted(random, lastNameWeights)],
+					(1 + random.nextInt(9999)) + " " + pick(random, STREETS), pick(random, CITIES),
+					"608555" + String.format("%04d", random.nextInt(10000)));
+			for (int p = 0; p < petsPerOwner; p++, petId++) {
+				LocalDate birthDate = today.minusDays(30 + random.nextInt(15 * 365));
+				petRows.add(petId, pick(random, PET_NAMES), Date.valueOf(birthDate),
+						typeIds.get(random.nextInt(typeIds.size())), ownerId);
+				long span = Math.max(1, today.toEpochDay() - birthDate.toEpochDay());
+				for (int v = 0; v < visitsPerPet; v++, visitId++) {
+					LocalDate date = birthDate.plusDays(random.nextLong(span));
+					visitRows.add(visitId, petId, Date.valueOf(date), pick(random, DESCRIPTIONS));
+				}
+			}
+		}
+		visitRows.flush();
+		restartIdentity("owners", ownerId);
+		restartIdentity("pets", petId);
+		restartIdentity("visits", visitId);
+		return new Result(firstOwnerId, owners, (long) owners * petsPerOwner,
+				(long) owners * petsPerOwner * visitsPerPet);
+	}
+
+	private int nextId(String table) {
+		Integer max = this.jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + table, Integer.class);
+		return (max != null) ? max + 1 : 1;
+	}
+
+	private void restartIdentity(String table, int nextId) {
+		switch (databaseDriver()) {
+			case H2, HSQLDB -> this.jdbcTemplate
+				.execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + nextId);
+			case POSTGRESQL -> this.jdbcTemplate
+				.queryForObject("SELECT setval(pg_get_serial_sequence('" + table + "', 'id'), ?)", Long.class,
+						nextId - 1);
+			default -> {
+				// MySQL moves AUTO_INCREMENT past explicitly inserted ids by itself
+			}
+		}
+	}
+
+	private DatabaseDriver databaseDriver() {
+		try {
+			String productName = JdbcUtils.extractDatabaseMetaData(this.jdbcTemplate.getDataSource(),
+					"getDatabaseProductName");
+			return DatabaseDriver.fromProductName(productName);
+		}
+		catch (MetaDataAccessException ex) {
+			return DatabaseDriver.UNKNOWN;
+		}
+	}
+
+	private static String pick(SplittableRandom random, String[] values) {
+		return values[random.nextInt(values.length)];
+	}
+
+	private static int pickWeighted(SplittableRandom random, double[] cumulativeWeights) {
+		int index = Arrays.binarySearch(cumulativeWeights, random.nextDouble());
+		return (index >= 0) ? index : Math.min(-index - 1, cumulativeWeights.length - 1);
+	}
+
+	/**
+	 * Return the cumulative probabilities of a Zipf distribution with exponent 1 over the
+	 * given number of ranks.
+	 */
+	private static double[] zipf(int ranks) {
+		double[] cumulative = new double[ranks];
+		double sum = 0;
+		for (int rank = 1; rank <= ranks; rank++) {
+			sum += 1.0 / rank;
+			cumulative[rank - 1] = sum;
+		}
+		for (int i = 0; i < ranks; i++) {
+			cumulative[i] /= sum;
+		}
+		return cumulative;
+	}
+
+	/**
+	 * Summary of a {@link #generate generation} run.
+	 * @param firstOwnerId the id of the first generated owner; the others follow
+	 * consecutively
+	 * @param owners the number of generated owners
+	 * @param pets the number of generated pets
+	 * @param visits the number of generated visits
+	 */
+	public record Result(int firstOwnerId, int owners, long pets, long visits) {
+	}
+
+	/**
+	 * Buffers rows of one table into multi-row statements and those into batches. Rows
+	 * referencing another table are only written after that table's rows were.
+	 */
+	private final class RowWriter {
+
+		private final String insert;
+
+		private final int columns;
+
+		private final RowWriter parent;
+
+		private final List<Object[]> statements = new ArrayList<>();
+
+		private Object[] values;
+
+		private int rows;
+
+		RowWriter(String insert, int columns, RowWriter parent) {
+			this.insert = insert;
+			this.columns = columns;
+			this.parent = parent;
+		}
+
+		void add(Object... row) {
+			if (this.values == null) {
+				this.values = new Object[rowsPerStatement * this.columns];
+			}
+			System.arraycopy(row, 0, this.values, this.rows * this.columns, this.columns);
+			if (++this.rows == rowsPerStatement) {
+				this.statements.add(this.values);
+				this.values = null;
+				this.rows = 0;
+				if (this.statements.size() == statementsPerBatch) {
+					flush();
+				}
+			}
+		}
+
+		void flush() {
+			if (this.parent != null) {
+				this.parent.flush();
+			}
+			if (!this.statements.isEmpty()) {
+				jdbcTemplate.batchUpdate(sql(rowsPerStatement), this.statements);
+				this.statements.clear();
+			}
+			if (this.rows > 0) {
+				jdbcTemplate.update(sql(this.rows), Arrays.copyOf(this.values, this.rows * this.columns));
+				this.values = null;
+				this.rows = 0;
+			}
+		}
+
+		private String sql(int rows) {
+			String row = "(?" + ", ?".repeat(this.columns - 1) + ")";
+			StringBuilder sql = new StringBuilder(this.insert).append(row);
+			for (int i = 1; i < rows; i++) {
+				sql.append(", ").append(row);
+			}
+			return sql.toString();
+		}
+
+	}
+
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.system;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.samples.petclinic.system.SampleDataGenerator.Result;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StopWatch;
+
+/**
+ * Adds synthetic data at startup when the {@code seed} profile is active, e.g.
+ * {@code --spring.profiles.active=postgres,seed --petclinic.seed.owners=1000000}. See
+ * {@code application-seed.properties} for the available settings. Note that every start
+ * with the profile adds another set of rows to a persistent database.
+ */
+@Component
+@Profile("seed")
+class SampleDataRunner implements ApplicationRunner {
+
+	private static final Log logger = LogFactory.getLog(SampleDataRunner.class);
+
+	private final JdbcTemplate jdbcTemplate;
+
+	@Value("${petclinic.seed.owners}")
+	private int owners;
+
+	@Value("${petclinic.seed.pets-per-owner}")
+	private int petsPerOwner;
+
+	@Value("${petclinic.seed.visits-per-pet}")
+	private int visitsPerPet;
+
+	@Value("${petclinic.seed.random-seed}")
+	private long randomSeed;
+
+	@Value("${petclinic.seed.rows-per-statement}")
+	private int rowsPerStatement;
+
+	@Value("${petclinic.seed.statements-per-batch}")
+	private int statementsPerBatch;
+
+	SampleDataRunner(JdbcTemplate jdbcTemplate) {
+		this.jdbcTemplate = jdbcTemplate;
+	}
+
+	@Override
+	public void run(ApplicationArguments args) {
+		logger.info("Generating " + this.owners + " owners with " + this.petsPerOwner + " pets and "
+				+ this.visitsPerPet + " visits per pet");
+		StopWatch watch = new StopWatch();
+		watch.start();
+		Result result = new SampleDataGenerator(this.jdbcTemplate, this.rowsPerStatement, this.statementsPerBatch)
+			.generate(this.owners, this.petsPerOwner, this.visitsPerPet, this.randomSeed);
+		watch.stop();
+		logger.info("Generated " + result.owners() + " owners, " + result.pets() + " pets and " + result.visits()
+				+ " visits in " + watch.getTotalTimeSeconds() + "s");
+	}
+
+}
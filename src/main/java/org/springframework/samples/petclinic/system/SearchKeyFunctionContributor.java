@@ -0,0 +1,56 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.system;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Contributes the {@value #SEARCH_KEY} function to JPQL: the form of a name that
+ * case-insensitive searches compare.
+ * <p>
+ * The H2, HSQLDB and MySQL schemas declare names with case-insensitive types or
+ * collations, so the function returns the column as is and their plain indexes keep
+ * serving prefix searches. PostgreSQL compares text case-sensitively, so the function
+ * lower-cases the column there, matching the {@code lower(last_name)} indexes of its
+ * schema. Callers lower-case the search term themselves.
+ * </p>
+ * <p>
+ * Registered through {@code META-INF/services}.
+ * </p>
+ */
+public class SearchKeyFunctionContributor implements FunctionContributor {
+
+	/**
+	 * The name of the function.
+	 */
+	public static final String SEARCH_KEY = "search_key";
+
+	@Override
+	public void contributeFunctions(FunctionContributions functionContributions) {
+		String pattern = (functionContributions.getDialect() instanceof PostgreSQLDialect) ? "lower(?1)" : "(?1)";
+		functionContributions.getFunctionRegistry()
+			.patternDescriptorBuilder(SEARCH_KEY, pattern)
+			.setExactArgumentCount(1)
+			.setInvariantType(functionContributions.getTypeConfiguration()
+				.getBasicTypeRegistry()
+				.resolve(StandardBasicTypes.STRING))
+			.register();
+	}
+
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.system;
+
+import java.io.IOException;
+import java.util.Set;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Pins requests that may write, i.e. all but the safe HTTP methods, to the primary. Their
+ * handlers load the aggregate they change in read-only transactions, and saving an
+ * aggregate read from a lagging replica would overwrite the newer state on the primary.
+ *
+ * @see ReadReplicaRoutingDataSource#pinToPrimary()
+ */
+class WriteRequestFilter extends OncePerRequestFilter {
+
+	private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS", "TRACE");
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		if (SAFE_METHODS.contains(request.getMethod())) {
+			filterChain.doFilter(request, response);
+			return;
+		}
+		ReadReplicaRoutingDataSource.pinToPrimary();
+		try {
+			filterChain.doFilter(request, response);
+		}
+		finally {
+			ReadReplicaRoutingDataSource.unpin();
+		}
+	}
+
+}
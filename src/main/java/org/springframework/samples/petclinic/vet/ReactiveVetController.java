@@ -0,0 +1,54 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.vet;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Read-only reactive variant of the vets resource. With an {@code application/x-ndjson}
+ * request the vets are streamed one per line, as they are read from the database; with
+ * {@code application/json} they are collected into the same {@link Vets} document as
+ * {@code /vets}.
+ */
+@RestController
+class ReactiveVetController {
+
+	private final ReactiveVetRepository vets;
+
+	ReactiveVetController(ReactiveVetRepository vets) {
+		this.vets = vets;
+	}
+
+	@GetMapping(value = "/reactive/vets", produces = MediaType.APPLICATION_NDJSON_VALUE)
+	public Flux<Vet> streamVetList() {
+		return this.vets.findAll();
+	}
+
+	@GetMapping(value = "/reactive/vets", produces = MediaType.APPLICATION_JSON_VALUE)
+	public Mono<Vets> showVetList() {
+		return this.vets.findAll().collectList().map(vetList -> {
+			Vets vets = new Vets();
+			vets.getVetList().addAll(vetList);
+			return vets;
+		});
+	}
+
+}
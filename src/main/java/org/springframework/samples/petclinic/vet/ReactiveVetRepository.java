@@ -0,0 +1,91 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.vet;
+
+import java.util.List;
+
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+
+import io.r2dbc.spi.Readable;
+import reactor.core.publisher.Flux;
+
+/**
+ * Non-blocking reads of {@link Vet}s over R2DBC. Vets are read together with their
+ * specialties in a single query, one row per specialty, and assembled as the rows
+ * arrive, so only the vet currently being read is held in memory.
+ */
+@Repository
+class ReactiveVetRepository {
+
+	private static final String FIND_ALL = """
+			SELECT v.id, v.first_name, v.last_name, s.id AS specialty_id, s.name AS specialty_name
+			FROM vets v
+			LEFT JOIN vet_specialties vs ON vs.vet_id = v.id
+			LEFT JOIN specialties s ON s.id = vs.specialty_id
+			ORDER BY v.last_name, v.id""";
+
+	private final DatabaseClient client;
+
+	ReactiveVetRepository(DatabaseClient client) {
+		this.client = client;
+	}
+
+	/**
+	 * Retrieve all vets ordered by last name. Rows are only read from the database as
+	 * fast as the subscriber requests vets.
+	 */
+	Flux<Vet> findAll() {
+		return this.client.sql(FIND_ALL)
+			.map(VetRow::of)
+			.all()
+			.bufferUntilChanged(VetRow::id)
+			.map(ReactiveVetRepository::toVet);
+	}
+
+	private static Vet toVet(List<VetRow> rows) {
+		VetRow first = rows.get(0);
+		Vet vet = new Vet();
+		vet.setId(first.id());
+		vet.setFirstName(first.firstName());
+		vet.setLastName(first.lastName());
+		for (VetRow row : rows) {
+			if (row.specialtyId() != null) {
+				Specialty specialty = new Specialty();
+				specialty.setId(row.specialtyId());
+				specialty.setName(row.specialtyName());
+				vet.addSpecialty(specialty);
+			}
+		}
+		return vet;
+	}
+
+	/**
+	 * A row of the vets query. R2DBC rows are only valid while they are being mapped, so
+	 * their values are copied before the rows of a vet are collected.
+	 */
+	private record VetRow(Integer id, String firstName, String lastName, Integer specialtyId,
+			String specialtyName) {
+
+		static VetRow of(Readable row) {
+			return new VetRow(row.get("id", Integer.class), row.get("first_name", String.class),
+					row.get("last_name", String.class), row.get("specialty_id", Integer.class),
+					row.get("specialty_name", String.class));
+		}
+
+	}
+
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.vet;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.DigestUtils;
+
+/**
+ * Names of the caches in front of the {@link VetRepository} and the hook that clears
+ * them. The complete list and the individual pages live in separate regions so that
+ * they can be bounded independently; both are emptied after any {@link Vet} or
+ * {@link Specialty} write has been committed.
+ * <p>
+ * Every eviction also advances the {@link #version() version} of the cached content,
+ * which is part of every cache {@link #key(Object...) key}: a load that started before a
+ * change can still complete after the eviction, but it fills an entry of the previous
+ * version that is never read again.
+ * </p>
+ */
+@Component
+public class VetCaches {
+
+	/**
+	 * Cache holding the complete list of vets.
+	 */
+	public static final String VETS = "vets";
+
+	/**
+	 * Cache holding single pages of vets, keyed by the requested page.
+	 */
+	public static final String VET_PAGES = "vetPages";
+
+	/**
+	 * Cache holding the serialized JSON representation of all vets.
+	 */
+	public static final String VETS_JSON = "vetsJson";
+
+	/**
+	 * Cache holding the {@link #pageDigest(Pageable) digests} of single pages of vets.
+	 */
+	public static final String VET_PAGE_DIGESTS = "vetPageDigests";
+
+	private final VetRepository vetRepository;
+
+	private final AtomicLong version = new AtomicLong();
+
+	public VetCaches(VetRepository vetRepository) {
+		this.vetRepository = vetRepository;
+	}
+
+	/**
+	 * Return the version of the vet data currently cached by this instance. Callers that
+	 * key cached content derived from the vets with it must read it <em>before</em>
+	 * reading the vets, so that a concurrent change can only result in newer content
+	 * under an older key, never the other way round.
+	 */
+	public long version() {
+		return this.version.get();
+	}
+
+	/**
+	 * Return the key of a cache entry of the current {@link #version() version}, for use
+	 * in the key expressions of the cached methods, e.g.
+	 * {@code key = "@vetCaches.key(#p0)"}.
+	 * @param parameters the method parameters the cached content depends on
+	 */
+	public Object key(Object... parameters) {
+		Object[] elements = new Object[parameters.length + 1];
+		elements[0] = version();
+		System.arraycopy(parameters, 0, elements, 1, parameters.length);
+		return new SimpleKey(elements);
+	}
+
+	/**
+	 * Return a hash of everything of a page of vets that the vet list shows, the same on
+	 * every instance serving the same vets. It is computed once per page and version, so
+	 * that answering a conditional request does not read or hash the page again.
+	 * @param pageable the requested page
+	 */
+	@Cacheable(cacheNames = VET_PAGE_DIGESTS, key = "@vetCaches.key(#p0)")
+	public String pageDigest(Pageable pageable) {
+		Page<Vet> page = this.vetRepository.findAll(pageable);
+		StringBuilder content = new StringBuilder().append(page.getTotalPages());
+		for (Vet vet : page) {
+			content.append('\n').append(vet.getId()).append(',').append(vet.getFirstName()).append(',')
+				.append(vet.getLastName());
+			for (Specialty specialty : vet.getSpecialties()) {
+				content.append(',').append(specialty.getName());
+			}
+		}
+		return DigestUtils.md5DigestAsHex(content.toString().getBytes(StandardCharsets.UTF_8));
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	@CacheEvict(cacheNames = { VETS, VET_PAGES, VETS_JSON, VET_PAGE_DIGESTS }, allEntries = true)
+	public void onVetsChanged(VetsChangedEvent event) {
+		this.version.incrementAndGet();
+	}
+
+	/**
+	 * Published by {@link VetChangeListener} after a vet or a specialty has been
+	 * inserted, updated or deleted.
+	 */
+	public record VetsChangedEvent() {
+	}
+
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.vet;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.samples.petclinic.vet.VetCaches.VetsChangedEvent;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * JPA entity listener that announces writes to {@link Vet} and {@link Specialty} so that
+ * the vet caches can be cleared once the transaction commits. Instantiated by Hibernate
+ * through the Spring bean container.
+ */
+public class VetChangeListener {
+
+	private final ApplicationEventPublisher events;
+
+	public VetChangeListener(ApplicationEventPublisher events) {
+		this.events = events;
+	}
+
+	@PostPersist
+	@PostUpdate
+	@PostRemove
+	void vetsChanged(Object entity) {
+		this.events.publishEvent(new VetsChangedEvent());
+	}
+
+}
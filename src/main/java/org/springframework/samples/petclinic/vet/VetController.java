@@ -15,15 +15,23 @@
  */
 package org.springframework.samples.petclinic.vet;
 
-import java.util.List;
+import java.util.Locale;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.samples.petclinic.vet.VetsSerializer.SerializedVets;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.ModelAndView;
+
+import jakarta.servlet.http.HttpServletResponse;
 
 /**
  * @author Juergen Hoeller
@@ -36,33 +44,75 @@ class VetController {
 
 	private final VetRepository vetRepository;
 
-	public VetController(VetRepository vetRepository) {
+	private final VetCaches vetCaches;
+
+	private final VetsSerializer vetsSerializer;
+
+	public VetController(VetRepository vetRepository, VetCaches vetCaches, VetsSerializer vetsSerializer) {
 		this.vetRepository = vetRepository;
+		this.vetCaches = vetCaches;
+		this.vetsSerializer = vetsSerializer;
 	}
 
-	@GetMapping(value = "/vets.html", produces = MediaType.TEXT_HTML_VALUE)
-	public String showVetList(@RequestParam(defaultValue = "1") int page) {
-		// Here we are returning an object of type 'Vets' rather than a collection of Vet
-		// objects so it is simpler for Object-Xml mapping
-		Vets vets = new Vets();
-		Page<Vet> paginated = findPaginated(page);
-		vets.getVetList().addAll(paginated.toList());
-		return "vets/vetList";
+	@GetMapping("/vets.html")
+	public ModelAndView showVetList(@RequestParam(defaultValue = "1") int page, Locale locale,
+			WebRequest request) {
+		// The entity tag is derived from the (cached) vets, so that it is the same on
+		// every instance; the rendered page depends on the locale of its messages as well
+		long version = this.vetCaches.version();
+		Pageable pageable = pageable(page);
+		String digest = this.vetCaches.pageDigest(pageable);
+		if (request.checkNotModified(etag("html-" + page + "-" + locale.toLanguageTag(), digest))) {
+			return null;
+		}
+		Page<Vet> paginated = this.vetRepository.findAll(pageable);
+		ModelAndView mav = new ModelAndView("vets/vetList");
+		mav.addObject("vetsVersion", version);
+		mav.addObject("currentPage", page);
+		mav.addObject("totalPages", paginated.getTotalPages());
+		mav.addObject("listVets", paginated.getContent());
+		return mav;
 	}
 
 	@GetMapping(value = { "/vets", "/vets.json" }, produces = MediaType.APPLICATION_JSON_VALUE)
-	public Vets showResourcesVetList() {
-		// Here we are returning an object of type 'Vets' rather than a collection of Vet
-		// objects so it is simpler for JSon/Object mapping
-		Vets vets = new Vets();
-		vets.getVetList().addAll(this.vetRepository.findAll());
-		return vets;
+	public ResponseEntity<byte[]> showResourcesVetList(
+			@RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+			WebRequest request, HttpServletResponse response) {
+		// The representation is served pre-serialized, and possibly pre-compressed,
+		// from the cache; see VetsSerializer
+		boolean gzip = acceptsGzip(acceptEncoding);
+		response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+		SerializedVets vets = this.vetsSerializer.serialize();
+		if (request.checkNotModified(etag(gzip ? "json-gzip" : "json", vets.digest()))) {
+			return null;
+		}
+		ResponseEntity.BodyBuilder builder = ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON);
+		if (gzip) {
+			return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(vets.gzip());
+		}
+		return builder.body(vets.json());
+	}
+
+	private static String etag(String variant, String digest) {
+		return "\"vets-" + variant + "-" + digest + "\"";
+	}
+
+	private static boolean acceptsGzip(String acceptEncoding) {
+		if (acceptEncoding == null) {
+			return false;
+		}
+		for (String coding : acceptEncoding.split(",")) {
+			String[] parts = coding.trim().split(";");
+			if (parts[0].trim().equalsIgnoreCase("gzip")) {
+				return parts.length == 1 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+			}
+		}
+		return false;
 	}
 
-	private Page<Vet> findPaginated(int page) {
+	private static Pageable pageable(int page) {
 		int pageSize = 5;
-		Pageable pageable = PageRequest.of(page - 1, pageSize);
-		return vetRepository.findAll(pageable);
+		return PageRequest.of(page - 1, pageSize);
 	}
 
-}
\ No newline at end of file
+}
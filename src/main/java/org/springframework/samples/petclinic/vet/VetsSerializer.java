@@ -0,0 +1,81 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.vet;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Produces the JSON representation of all vets, ready to be written to a response.
+ * <p>
+ * The result is cached in the {@link VetCaches#VETS_JSON} region, which is evicted
+ * together with the entity caches, so that serving {@code /vets} from the cache only
+ * copies bytes. A gzip encoded variant is prepared alongside the plain one.
+ * </p>
+ */
+@Component
+public class VetsSerializer {
+
+	private final VetRepository vetRepository;
+
+	private final ObjectMapper objectMapper;
+
+	public VetsSerializer(VetRepository vetRepository, ObjectMapper objectMapper) {
+		this.vetRepository = vetRepository;
+		this.objectMapper = objectMapper;
+	}
+
+	@Cacheable(cacheNames = VetCaches.VETS_JSON, key = "@vetCaches.key()")
+	public SerializedVets serialize() {
+		Vets vets = new Vets();
+		vets.getVetList().addAll(this.vetRepository.findAll());
+		try {
+			byte[] json = this.objectMapper.writeValueAsBytes(vets);
+			return new SerializedVets(json, gzip(json), DigestUtils.md5DigestAsHex(json));
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+
+	private static byte[] gzip(byte[] content) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(content.length / 4);
+		try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+			gzip.write(content);
+		}
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * The serialized vets. The arrays are shared by every response and must not be
+	 * modified.
+	 * @param json the JSON document
+	 * @param gzip the same document, gzip encoded
+	 * @param digest a hash of the JSON document, the same on every instance serving the
+	 * same vets
+	 */
+	public record SerializedVets(byte[] json, byte[] gzip, String digest) {
+	}
+
+}
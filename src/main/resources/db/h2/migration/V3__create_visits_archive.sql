@@ -0,0 +1,10 @@
+-- Cold tier of the visit history: visits older than the archive horizon are moved here
+-- by the VisitArchiver, keeping their ids. Pets load the visits table only.
+CREATE TABLE visits_archive (
+  id          INTEGER NOT NULL PRIMARY KEY,
+  pet_id      INTEGER,
+  visit_date  DATE NOT NULL,
+  description VARCHAR(255)
+);
+ALTER TABLE visits_archive ADD CONSTRAINT fk_visits_archive_pets FOREIGN KEY (pet_id) REFERENCES pets (id);
+CREATE INDEX visits_archive_pet_id_visit_date ON visits_archive (pet_id, visit_date);
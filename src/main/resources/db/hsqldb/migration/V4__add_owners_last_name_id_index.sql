@@ -0,0 +1,5 @@
+-- The owners list pages by (last_name, id): with the id in the index, a window is read
+-- in index order from the last name of the previous window on, without sorting the
+-- owners that share a last name.
+CREATE INDEX owners_last_name_id ON owners (last_name, id);
+DROP INDEX owners_last_name;
@@ -0,0 +1,4 @@
+-- The visits of a pet are read in visit_date order. InnoDB builds the index in place
+-- while reads and writes go on; the statement fails instead of locking the table if
+-- that is not possible.
+ALTER TABLE visits ADD INDEX visits_pet_id_visit_date (pet_id, visit_date), ALGORITHM=INPLACE, LOCK=NONE;
@@ -31,7 +31,7 @@ CREATE TABLE IF NOT EXISTS owners (
   city       TEXT,
   telephone  TEXT
 );
-CREATE INDEX ON owners (last_name);
+CREATE INDEX owners_last_name_idx ON owners (last_name);
 
 CREATE TABLE IF NOT EXISTS pets (
   id         INT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
@@ -49,4 +49,4 @@ CREATE TABLE IF NOT EXISTS visits (
   visit_date  DATE,
   description TEXT
 );
-CREATE INDEX ON visits (pet_id);
+CREATE INDEX visits_pet_id_idx ON visits (pet_id);
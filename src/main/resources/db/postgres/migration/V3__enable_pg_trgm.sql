@@ -0,0 +1,3 @@
+-- Trigram operator classes for the contains-style owner search index of V4. Kept apart
+-- from V4, which has to run outside of a transaction.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
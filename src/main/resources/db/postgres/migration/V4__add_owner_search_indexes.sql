@@ -0,0 +1,24 @@
+-- Owner search compares lower(last_name), as PostgreSQL text is case-sensitive. The
+-- pattern ops serve LIKE 'prefix%' under any collation, the trigram index serves
+-- LIKE '%part%'. The owners list pages by (last_name, id) and shows the other columns,
+-- so it can be read from the covering index alone. The visits of a pet are read in
+-- visit_date order.
+--
+-- The indexes are built CONCURRENTLY, so that writes go on while this migration runs
+-- against a populated database. Flyway runs a migration made only of such statements
+-- outside of a transaction; do not add any other statement to this file. A build that
+-- fails leaves an INVALID index behind, which IF NOT EXISTS would then skip: drop it
+-- before running the migration again.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS owners_last_name_lower
+  ON owners (lower(last_name) text_pattern_ops);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS owners_last_name_trgm
+  ON owners USING gin (lower(last_name) gin_trgm_ops);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS owners_last_name_id
+  ON owners (last_name, id) INCLUDE (first_name, address, city, telephone);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS visits_pet_id_visit_date
+  ON visits (pet_id, visit_date);
+
+-- Superseded by owners_last_name_id and visits_pet_id_visit_date
+DROP INDEX CONCURRENTLY IF EXISTS owners_last_name_idx;
+DROP INDEX CONCURRENTLY IF EXISTS visits_pet_id_idx;
@@ -0,0 +1,28 @@
+-- Cold tier of the visit history: visits older than the archive horizon are moved here
+-- by the VisitArchiver, keeping their ids. Pets load the visits table only.
+--
+-- The archive grows without bound, so it is range-partitioned by year of visit_date:
+-- history queries for a period only read its partitions, and a year that no longer
+-- needs to be kept can be detached or dropped as a whole. The primary key has to
+-- include the partition key. Visits outside the years created here end up in the
+-- default partition; add partitions for later years before visits of those years are
+-- archived, as a partition cannot be created for rows already in the default one.
+CREATE TABLE IF NOT EXISTS visits_archive (
+  id          INT NOT NULL,
+  pet_id      INT REFERENCES pets (id),
+  visit_date  DATE NOT NULL,
+  description TEXT,
+  PRIMARY KEY (id, visit_date)
+) PARTITION BY RANGE (visit_date);
+CREATE INDEX IF NOT EXISTS visits_archive_pet_id_visit_date ON visits_archive (pet_id, visit_date);
+
+DO $$
+BEGIN
+  FOR archive_year IN 2000..2039 LOOP
+    EXECUTE format('CREATE TABLE IF NOT EXISTS visits_archive_%s PARTITION OF visits_archive '
+        'FOR VALUES FROM (%L) TO (%L)', archive_year, make_date(archive_year, 1, 1),
+        make_date(archive_year + 1, 1, 1));
+  END LOOP;
+END
+$$;
+CREATE TABLE IF NOT EXISTS visits_archive_default PARTITION OF visits_archive DEFAULT;
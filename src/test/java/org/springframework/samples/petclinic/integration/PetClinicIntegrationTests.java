@@ -3,8 +3,10 @@ package org.springframework.samples.petclinic.integration;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -15,22 +17,37 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
 import org.springframework.boot.test.web.server.LocalServerPort;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.http.MediaType;
 import org.springframework.http.RequestEntity;
 import org.springframework.http.ResponseEntity;
 import org.springframework.samples.petclinic.PetClinicApplication;
 import org.springframework.samples.petclinic.owner.Owner;
+import org.springframework.samples.petclinic.owner.OwnerRepository;
 import org.springframework.samples.petclinic.owner.Pet;
 import org.springframework.samples.petclinic.owner.PetType;
+import org.springframework.samples.petclinic.owner.PetTypeRegistry;
 import org.springframework.samples.petclinic.owner.Visit;
+import org.springframework.samples.petclinic.system.FragmentCacheDialect;
+import org.springframework.samples.petclinic.system.JdbcStatistics;
+import org.springframework.samples.petclinic.system.JdbcStatistics.Recording;
+import org.springframework.samples.petclinic.system.SampleDataGenerator;
 import org.springframework.samples.petclinic.vet.Vet;
+import org.springframework.samples.petclinic.vet.VetCaches;
+import org.springframework.samples.petclinic.vet.VetCaches.VetsChangedEvent;
 import org.springframework.samples.petclinic.vet.Vets;
 import org.springframework.samples.petclinic.vet.VetRepository;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 
-@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT)
+import com.fasterxml.jackson.databind.JsonNode;
+
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT, properties = "petclinic.jdbc.metrics.enabled=true")
 public class PetClinicIntegrationTests {
 
     @LocalServerPort
@@ -39,6 +56,21 @@ public class PetClinicIntegrationTests {
     @Autowired
     private VetRepository vets;
 
+    @Autowired
+    private VetCaches vetCaches;
+
+    @Autowired
+    private OwnerRepository owners;
+
+    @Autowired
+    private PetTypeRegistry petTypes;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CacheManager cacheManager;
+
     @Autowired
     private RestTemplateBuilder builder;
 
@@ -396,6 +428,273 @@ public class PetClinicIntegrationTests {
         });
     }
 
+    @Test
+    void testExportAsNdjson() {
+        ResponseEntity<String> result = restTemplate.exchange(
+            RequestEntity.get("/export").accept(MediaType.parseMediaType("application/x-ndjson")).build(),
+            String.class
+        );
+
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.OK);
+        String[] lines = result.getBody().split("\n");
+        assertThat(lines[0]).startsWith("{\"type\":\"owner\",\"id\":1,");
+        assertThat(lines).filteredOn(line -> line.startsWith("{\"type\":\"pet\"")).hasSizeGreaterThanOrEqualTo(13);
+        assertThat(lines[lines.length - 1]).startsWith("{\"type\":\"visit\"");
+        assertThat(result.getBody()).endsWith("}\n");
+    }
+
+    @Test
+    void testExportIncludesPetsWithoutType() {
+        // none of the schemas allows it, but the export must not depend on that
+        jdbcTemplate.execute("ALTER TABLE pets ALTER COLUMN type_id SET NULL");
+        try {
+            jdbcTemplate.update("INSERT INTO pets (name, birth_date, type_id, owner_id) "
+                    + "VALUES ('Nameless', ?, NULL, 1)", LocalDate.of(2020, 1, 1));
+            String export = restTemplate.getForObject("/export", String.class);
+            assertThat(export.split("\n")).filteredOn(line -> line.contains("\"name\":\"Nameless\""))
+                .singleElement()
+                .asString()
+                .startsWith("{\"type\":\"pet\"");
+        }
+        finally {
+            jdbcTemplate.update("DELETE FROM pets WHERE name = 'Nameless'");
+            jdbcTemplate.execute("ALTER TABLE pets ALTER COLUMN type_id SET NOT NULL");
+        }
+    }
+
+    @Test
+    void testReactiveVetsAsNdjson() {
+        ResponseEntity<String> result = restTemplate.exchange(
+            RequestEntity.get("/reactive/vets").accept(MediaType.APPLICATION_NDJSON).build(),
+            String.class
+        );
+
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.OK);
+        String[] lines = result.getBody().split("\n");
+        assertThat(lines).hasSize(6);
+        assertThat(lines[0]).contains("\"lastName\":\"Carter\"");
+        assertThat(lines[1]).contains("\"lastName\":\"Douglas\"", "\"nrOfSpecialties\":2");
+    }
+
+    @Test
+    void testReactiveVetsAsJsonMatchVets() {
+        ResponseEntity<JsonNode> reactive = restTemplate.getForEntity("/reactive/vets", JsonNode.class);
+        JsonNode blocking = restTemplate.getForObject("/vets", JsonNode.class);
+
+        assertThat(reactive.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(reactive.getBody().fieldNames()).toIterable().containsExactly("vetList");
+        // ordered by last name rather than by id
+        assertThat(reactive.getBody().get("vetList")).containsExactlyInAnyOrderElementsOf(blocking.get("vetList"));
+    }
+
+    @Test
+    void testReactiveOwnerDetailsMatchOwnerDetails() {
+        ResponseEntity<String> reactive = restTemplate.getForEntity("/reactive/owners/6", String.class);
+        ResponseEntity<String> blocking = restTemplate.getForEntity("/owners/6", String.class);
+
+        assertThat(reactive.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(reactive.getBody()).contains("\"description\":\"spayed\"");
+        assertThat(reactive.getBody()).isEqualTo(blocking.getBody());
+        assertThrows(HttpClientErrorException.NotFound.class,
+            () -> restTemplate.getForEntity("/reactive/owners/9999", String.class));
+    }
+
+    @Test
+    void testReactiveOwnerSearch() {
+        ResponseEntity<Owner[]> result = restTemplate.getForEntity("/reactive/owners?lastName=Da", Owner[].class);
+
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(result.getBody()).extracting(Owner::getFirstName).containsExactly("Betty", "Harold");
+        assertThat(result.getBody()[0].getPets()).extracting(Pet::getName).containsExactly("Basil");
+        assertThat(restTemplate.getForEntity("/reactive/owners?lastName=dA", Owner[].class).getBody())
+            .extracting(Owner::getFirstName).containsExactly("Betty", "Harold");
+        assertThat(restTemplate.getForEntity("/reactive/owners?lastName=%", Owner[].class).getBody()).isEmpty();
+        assertThat(restTemplate.getForEntity("/reactive/owners?size=2", Owner[].class).getBody())
+            .extracting(Owner::getLastName).containsExactly("Black", "Coleman");
+        assertThrows(HttpClientErrorException.BadRequest.class,
+            () -> restTemplate.getForEntity("/reactive/owners?size=101", Owner[].class));
+    }
+
+    @Test
+    void testVetsLoadedBeforeChangeAreNotServedAfterIt() {
+        // a load that read the vets before a change, and fills the cache after it
+        Object key = vetCaches.key();
+        vetCaches.onVetsChanged(new VetsChangedEvent());
+        cacheManager.getCache(VetCaches.VETS).put(key, List.of());
+
+        assertThat(vets.findAll()).isNotEmpty();
+
+        // whereas a fill of the current version is served
+        cacheManager.getCache(VetCaches.VETS).put(vetCaches.key(), List.of());
+        assertThat(vets.findAll()).isEmpty();
+        vetCaches.onVetsChanged(new VetsChangedEvent());
+    }
+
+    @Test
+    void testVetListEtagTakenFromCachedPageDigest() {
+        vetCaches.onVetsChanged(new VetsChangedEvent());
+        String etag = restTemplate.exchange(RequestEntity.get("/vets.html").accept(MediaType.TEXT_HTML).build(),
+                String.class).getHeaders().getETag();
+        Cache digests = cacheManager.getCache(VetCaches.VET_PAGE_DIGESTS);
+        Object key = vetCaches.key(PageRequest.of(0, 5));
+        assertThat(etag).endsWith("-" + digests.get(key).get() + "\"");
+
+        // a conditional request is answered from the cached digest alone
+        digests.put(key, "cached");
+        ResponseEntity<String> notModified = restTemplate.exchange(RequestEntity.get("/vets.html")
+            .accept(MediaType.TEXT_HTML)
+            .ifNoneMatch(etag.replaceFirst("-[0-9a-f]+\"$", "-cached\""))
+            .build(), String.class);
+        assertThat(notModified.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        vetCaches.onVetsChanged(new VetsChangedEvent());
+    }
+
+    @Test
+    void testVetListRenderedFromFragmentCache() {
+        Cache fragments = cacheManager.getCache(FragmentCacheDialect.CACHE);
+        fragments.clear();
+
+        String english = getHtml("/vets.html");
+        String cached = getHtml("/vets.html");
+        String spanish = getHtml("/vets.html?lang=es");
+
+        assertThat(cached).isEqualTo(english).contains("James Carter", "Find Owners");
+        assertThat(spanish).contains("James Carter", "Buscar propietarios").doesNotContain("Find Owners");
+        assertThat(english + spanish).doesNotContain("pc:cache", "jsessionid");
+        assertThat((Iterable<?>) fragments.getNativeCache()).hasSize(4);
+    }
+
+    @Test
+    void testPetTypeOptionsRenderedFromFragmentCache() {
+        cacheManager.getCache(FragmentCacheDialect.CACHE).clear();
+
+        assertThat(getHtml("/owners/1/pets/1/edit")).contains("<option value=\"cat\" selected=\"selected\">")
+            .contains("<option value=\"hamster\">");
+        // the same options, selecting the type of another pet
+        assertThat(getHtml("/owners/2/pets/2/edit")).contains("<option value=\"hamster\" selected=\"selected\">")
+            .contains("<option value=\"cat\">");
+        assertThat(getHtml("/owners/1/pets/1/edit")).contains("<option value=\"cat\" selected=\"selected\">");
+
+        jdbcTemplate.update("INSERT INTO types (name) VALUES ('ferret')");
+        try {
+            petTypes.refresh();
+            assertThat(getHtml("/owners/1/pets/1/edit")).contains("<option value=\"ferret\">")
+                .contains("<option value=\"cat\" selected=\"selected\">");
+        }
+        finally {
+            jdbcTemplate.update("DELETE FROM types WHERE name = 'ferret'");
+            petTypes.refresh();
+        }
+    }
+
+    private String getHtml(String url) {
+        return restTemplate.exchange(RequestEntity.get(url).accept(MediaType.TEXT_HTML).build(), String.class)
+            .getBody();
+    }
+
+    @Test
+    void testLoadOwnerWithLargeVisitHistory() {
+        int pets = 20;
+        int visitsPerPet = 100;
+        int ownerId = new SampleDataGenerator(jdbcTemplate, 100, 10).generate(1, pets, visitsPerPet, 42)
+            .firstOwnerId();
+        try (Recording recording = JdbcStatistics.start()) {
+            Owner owner = owners.findById(ownerId).orElseThrow();
+
+            assertThat(owner.getPets()).hasSize(pets)
+                .allSatisfy(pet -> assertThat(pet.getVisits()).hasSize(visitsPerPet));
+            // the owner joined with its pets, then the visits of all pets in one batch,
+            // instead of a select per pet or a join returning pets x visits rows
+            assertThat(recording.getStatementCount()).isLessThanOrEqualTo(2);
+            assertThat(recording.getRowCount()).isLessThanOrEqualTo(pets + (long) pets * visitsPerPet);
+        }
+        finally {
+            jdbcTemplate.update("DELETE FROM visits WHERE pet_id IN (SELECT id FROM pets WHERE owner_id = ?)", ownerId);
+            jdbcTemplate.update("DELETE FROM pets WHERE owner_id = ?", ownerId);
+            jdbcTemplate.update("DELETE FROM owners WHERE id = ?", ownerId);
+        }
+    }
+
+    @Test
+    void testOwnerSearchPageCostDoesNotGrowWithMatches() {
+        SampleDataGenerator generator = new SampleDataGenerator(jdbcTemplate, 100, 50);
+        int firstOwnerId = generator.generate(1_000, 2, 0, 42).firstOwnerId();
+        try {
+            Duration few = fastestSummaryWindow("", 0);
+            generator.generate(19_000, 2, 0, 43);
+            Duration many = fastestSummaryWindow("", 0);
+            // the window is picked from the owners index before any pet is aggregated, so
+            // twenty times as many matching owners must not make the first window slower
+            assertThat(many).as("first window with 1,000 matching owners took %s, with 20,000 %s", few, many)
+                .isLessThan(few.multipliedBy(2).plusMillis(5));
+
+            // the first owner of the last name found 19,000 owners into the search
+            Map<String, Object> cursor = jdbcTemplate.queryForMap("SELECT last_name, MIN(id) AS id FROM owners "
+                    + "WHERE last_name = (SELECT last_name FROM owners ORDER BY last_name, id "
+                    + "OFFSET 19000 ROWS FETCH FIRST 1 ROW ONLY) GROUP BY last_name");
+            Duration deep = fastestSummaryWindow((String) cursor.get("last_name"), (Integer) cursor.get("id"));
+            // the index seek starts at the last name of the cursor instead of skipping the
+            // owners before it
+            assertThat(deep).as("first window took %s, window after 19,000 owners %s", many, deep)
+                .isLessThan(many.multipliedBy(2).plusMillis(5));
+        }
+        finally {
+            jdbcTemplate.update("DELETE FROM pets WHERE owner_id >= ?", firstOwnerId);
+            jdbcTemplate.update("DELETE FROM owners WHERE id >= ?", firstOwnerId);
+        }
+    }
+
+    private Duration fastestSummaryWindow(String afterLastName, int afterId) {
+        Duration fastest = null;
+        for (int i = 0; i < 10; i++) {
+            try (Recording recording = JdbcStatistics.start()) {
+                assertThat(owners.findSummariesByLastNameStartingWith("", afterLastName, afterId, Limit.of(6)))
+                    .hasSize(6);
+                if (fastest == null || recording.getTime().compareTo(fastest) < 0) {
+                    fastest = recording.getTime();
+                }
+            }
+        }
+        return fastest;
+    }
+
+    @Test
+    void testVisitHistoryIncludesArchivedVisits() {
+        int ownerId = new SampleDataGenerator(jdbcTemplate, 100, 10).generate(1, 1, 30, 42).firstOwnerId();
+        int petId = jdbcTemplate.queryForObject("SELECT id FROM pets WHERE owner_id = ?", Integer.class, ownerId);
+        String history = "/owners/" + ownerId + "/pets/" + petId + "/visits";
+        try {
+            jdbcTemplate.update("INSERT INTO visits_archive SELECT id, pet_id, visit_date, description FROM visits "
+                    + "WHERE pet_id = ?", petId);
+            jdbcTemplate.update("DELETE FROM visits WHERE pet_id = ?", petId);
+            Map<String, Object> visitData = new HashMap<>();
+            visitData.put("date", LocalDate.now().toString());
+            visitData.put("description", "Regular checkup");
+            restTemplate.postForEntity(history + "/new", visitData, Visit.class);
+
+            assertThat(owners.findById(ownerId).orElseThrow().getPet(petId).getVisits()).hasSize(1);
+            JsonNode first = restTemplate.getForObject(history + "?size=20", JsonNode.class);
+            assertThat(first.get("visits")).hasSize(20);
+            assertThat(first.get("visits").get(0).get("description").asText()).isEqualTo("Regular checkup");
+            assertThat(first.get("visits").get(0).get("archived").asBoolean()).isFalse();
+            assertThat(first.get("visits").get(1).get("archived").asBoolean()).isTrue();
+            assertThat(first.get("next").asInt()).isEqualTo(1);
+            JsonNode second = restTemplate.getForObject(history + "?size=20&page=1", JsonNode.class);
+            assertThat(second.get("visits")).hasSize(11);
+            assertThat(second.get("next").isNull()).isTrue();
+
+            String export = restTemplate.getForObject("/export", String.class);
+            assertThat(export.split("\n")).filteredOn(line -> line.contains("\"petId\":" + petId + ","))
+                .hasSize(31);
+        }
+        finally {
+            jdbcTemplate.update("DELETE FROM visits_archive WHERE pet_id = ?", petId);
+            jdbcTemplate.update("DELETE FROM visits WHERE pet_id = ?", petId);
+            jdbcTemplate.update("DELETE FROM pets WHERE owner_id = ?", ownerId);
+            jdbcTemplate.update("DELETE FROM owners WHERE id = ?", ownerId);
+        }
+    }
+
     public static void main(String[] args) {
         SpringApplication.run(PetClinicApplication.class, args);
     }
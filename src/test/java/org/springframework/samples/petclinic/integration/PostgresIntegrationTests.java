@@ -16,9 +16,13 @@
 
 package org.springframework.samples.petclinic.integration;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
 import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
@@ -26,6 +30,7 @@ import java.util.List;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.condition.DisabledInNativeImage;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.builder.SpringApplicationBuilder;
@@ -38,7 +43,11 @@ import org.springframework.context.ApplicationListener;
 import org.springframework.core.env.ConfigurableEnvironment;
 import org.springframework.core.env.EnumerablePropertySource;
 import org.springframework.core.env.PropertySource;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.samples.petclinic.PetClinicApplication;
+import org.springframework.samples.petclinic.owner.OwnerRepository;
+import org.springframework.samples.petclinic.owner.OwnerSummary;
 import org.springframework.samples.petclinic.vet.VetRepository;
 import org.springframework.test.context.ActiveProfiles;
 import org.testcontainers.DockerClientFactory;
@@ -58,11 +67,52 @@ public class PostgresIntegrationTests {
     @Autowired
     private RestTemplateBuilder builder;
 
+    @Autowired
+    private OwnerRepository owners;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     @BeforeAll
     static void available() {
         assumeTrue(DockerClientFactory.instance().isDockerAvailable(), "Docker not available");
     }
 
+    @Test
+    void testOwnerSearchIgnoresCaseAndUsesIndexes() {
+        assertThat(owners.findSummariesByLastNameStartingWith("dAV", "", 0, Limit.of(10)))
+            .extracting(OwnerSummary::firstName)
+            .containsExactly("Betty", "Harold");
+
+        // the sample data is too small for the planner to prefer an index on its own
+        assertThat(explain("SELECT id FROM owners WHERE lower(last_name) LIKE 'dav%'"))
+            .contains("owners_last_name_lower");
+        assertThat(explain("SELECT id FROM owners WHERE lower(last_name) LIKE '%avi%'"))
+            .contains("owners_last_name_trgm");
+        assertThat(explain("SELECT id, first_name FROM owners WHERE last_name > 'Davis' ORDER BY last_name, id LIMIT 5"))
+            .contains("using owners_last_name_id");
+        assertThat(explain("SELECT visit_date FROM visits WHERE pet_id = 7 ORDER BY visit_date"))
+            .contains("visits_pet_id_visit_date").doesNotContain("Sort");
+    }
+
+    private String explain(String query) {
+        return jdbcTemplate.execute((Connection connection) -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET enable_seqscan = off");
+                StringBuilder plan = new StringBuilder();
+                try (ResultSet lines = statement.executeQuery("EXPLAIN " + query)) {
+                    while (lines.next()) {
+                        plan.append(lines.getString(1)).append('\n');
+                    }
+                }
+                finally {
+                    statement.execute("RESET enable_seqscan");
+                }
+                return plan.toString();
+            }
+        });
+    }
+
     public static void main(String[] args) {
         new SpringApplicationBuilder(PetClinicApplication.class) //
             .profiles("postgres") //
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.Duration;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.samples.petclinic.owner.Owner;
+import org.springframework.samples.petclinic.owner.OwnerRepository;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Read replica routing with two in-memory H2 databases standing in for the primary and
+ * the replica. The replica is migrated like the primary, and then told apart by the first
+ * name of owner 1. Its lag is whatever the {@code replica_status} table says.
+ */
+@SpringBootTest(properties = { "spring.datasource.url=jdbc:h2:mem:primary",
+        "petclinic.datasource.replica.url=" + ReadReplicaIntegrationTests.REPLICA_URL,
+        "petclinic.datasource.replica.username=sa", "petclinic.datasource.replica.password=",
+        "petclinic.datasource.replica.lag-query=SELECT lag_seconds FROM replica_status",
+        "petclinic.datasource.replica.lag-check-interval=50ms" })
+@ActiveProfiles("replica")
+@AutoConfigureMockMvc
+class ReadReplicaIntegrationTests {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1";
+
+    private static final JdbcTemplate replicaJdbcTemplate = new JdbcTemplate(
+            new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+
+    @Autowired
+    private OwnerRepository owners;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @BeforeAll
+    static void createReplica() {
+        Flyway.configure().dataSource(REPLICA_URL, "sa", "").locations("classpath:db/h2/migration").load().migrate();
+        replicaJdbcTemplate.update("UPDATE owners SET first_name = 'Replica' WHERE id = 1");
+        replicaJdbcTemplate.execute("CREATE TABLE replica_status (lag_seconds INTEGER)");
+        replicaJdbcTemplate.update("INSERT INTO replica_status VALUES (0)");
+    }
+
+    @BeforeEach
+    void waitForReplica() {
+        replicaJdbcTemplate.update("UPDATE replica_status SET lag_seconds = 0");
+        await().atMost(Duration.ofSeconds(10)).until(() -> firstNameOfOwner1().equals("Replica"));
+    }
+
+    @Test
+    void testReadOnlyTransactionsUseReplica() {
+        assertThat(owners.findById(1)).get().extracting(Owner::getFirstName).isEqualTo("Replica");
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        String firstName = readOnly.execute(status -> firstNameOfOwner1());
+        assertThat(firstName).isEqualTo("Replica");
+    }
+
+    @Test
+    void testWritesAndReadWriteTransactionsUsePrimary() {
+        Owner owner = new Owner();
+        owner.setFirstName("Sam");
+        owner.setLastName("Primary");
+        owner.setAddress("4, Evans Street");
+        owner.setCity("Wollongong");
+        owner.setTelephone("4444444444");
+        owners.save(owner);
+        String count = "SELECT count(*) FROM owners WHERE last_name = 'Primary'";
+        assertThat(jdbcTemplate.queryForObject(count, Integer.class)).isEqualTo(1);
+        assertThat(replicaJdbcTemplate.queryForObject(count, Integer.class)).isZero();
+
+        TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+        String firstName = readWrite.execute(status -> firstNameOfOwner1());
+        assertThat(firstName).isEqualTo("George");
+        owners.delete(owner);
+    }
+
+    @Test
+    void testWriteRequestsReadFromPrimary() throws Exception {
+        // adding a pet loads the owner and saves it: loaded from the replica, the owner's
+        // first name would be overwritten with the one of the replica
+        mockMvc.perform(post("/owners/1/pets/new").accept(MediaType.TEXT_HTML)
+            .param("name", "Replicated")
+            .param("type", "dog")
+            .param("birthDate", "2020-01-01"))
+            .andExpect(status().is3xxRedirection());
+        assertThat(jdbcTemplate.queryForObject("SELECT first_name FROM owners WHERE id = 1", String.class))
+            .isEqualTo("George");
+        assertThat(jdbcTemplate.update("DELETE FROM pets WHERE name = 'Replicated'")).isOne();
+    }
+
+    @Test
+    void testReadsUsePrimaryUntilReplicaReplayedCommit() {
+        // within the maximum lag, but the commit below is not replayed for 3 seconds
+        replicaJdbcTemplate.update("UPDATE replica_status SET lag_seconds = 3");
+        await().atMost(Duration.ofSeconds(10)).until(() -> firstNameOfOwner1().equals("Replica"));
+
+        new TransactionTemplate(transactionManager)
+            .executeWithoutResult(status -> jdbcTemplate.update("UPDATE owners SET city = city WHERE id = 2"));
+        assertThat(firstNameOfOwner1()).isEqualTo("George");
+        assertThat(meterRegistry.get("petclinic.datasource.replica.usable").gauge().value()).isZero();
+        await().atMost(Duration.ofSeconds(10)).until(() -> firstNameOfOwner1().equals("Replica"));
+    }
+
+    @Test
+    void testLaggingReplicaFallsBackToPrimary() {
+        replicaJdbcTemplate.update("UPDATE replica_status SET lag_seconds = 60");
+        await().atMost(Duration.ofSeconds(10)).until(() -> firstNameOfOwner1().equals("George"));
+        assertThat(meterRegistry.get("petclinic.datasource.replica.usable").gauge().value()).isZero();
+        assertThat(meterRegistry.get("petclinic.datasource.replica.lag").gauge().value()).isEqualTo(60);
+    }
+
+    @Test
+    void testPoolsHaveSeparateMetrics() {
+        assertThat(meterRegistry.get("hikaricp.connections").tag("pool", "primary").gauge()).isNotNull();
+        assertThat(meterRegistry.get("hikaricp.connections").tag("pool", "replica").gauge()).isNotNull();
+        assertThat(meterRegistry.get("petclinic.datasource.replica.usable").gauge().value()).isEqualTo(1);
+    }
+
+    private String firstNameOfOwner1() {
+        return owners.findById(1).orElseThrow().getFirstName();
+    }
+
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.integration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Load test for the {@code virtual-threads} profile. Every connection handed out by the
+ * {@link DataSource} is delayed to simulate a slow database, and Tomcat is left with a
+ * handful of platform threads. Compared to the same burst of concurrent requests without
+ * the latency, the slowdown must stay well below what those platform threads alone would
+ * have needed to wait for the database.
+ */
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT, properties = "server.tomcat.threads.max=4")
+@ActiveProfiles("virtual-threads")
+@EnabledForJreRange(min = JRE.JAVA_21)
+class VirtualThreadsLoadTests {
+
+    private static final Duration DATABASE_LATENCY = Duration.ofMillis(200);
+
+    private static final int PLATFORM_THREADS = 4;
+
+    private static final int REQUESTS = 200;
+
+    @LocalServerPort
+    int port;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Test
+    void testThroughputUnderDatabaseLatency() {
+        SlowDataSource.enabled = false;
+        burst(); // warm up
+        Duration withoutLatency = burst();
+        SlowDataSource.enabled = true;
+        Duration withLatency = burst();
+
+        // Platform threads serve at most PLATFORM_THREADS requests per DATABASE_LATENCY
+        Duration platformThreadsBound = DATABASE_LATENCY.multipliedBy(REQUESTS / PLATFORM_THREADS);
+        assertThat(withLatency.minus(withoutLatency))
+            .as("%d requests in %d ms without and %d ms with database latency, platform threads need at least %d ms",
+                    REQUESTS, withoutLatency.toMillis(), withLatency.toMillis(), platformThreadsBound.toMillis())
+            .isLessThan(platformThreadsBound.dividedBy(2));
+    }
+
+    private Duration burst() {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/owners/1"))
+            .header("Accept", "application/json")
+            .build();
+        long start = System.nanoTime();
+        List<CompletableFuture<HttpResponse<String>>> futures = IntStream.range(0, REQUESTS)
+            .mapToObj(i -> client.sendAsync(request, BodyHandlers.ofString()))
+            .toList();
+        futures.stream()
+            .map(CompletableFuture::join)
+            .forEach(response -> assertThat(response.statusCode()).isEqualTo(200));
+        return Duration.ofNanos(System.nanoTime() - start);
+    }
+
+    @TestConfiguration(proxyBeanMethods = false)
+    static class DatabaseLatencyConfiguration {
+
+        @Bean
+        static BeanPostProcessor databaseLatency() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return (bean instanceof DataSource dataSource) ? new SlowDataSource(dataSource) : bean;
+                }
+            };
+        }
+
+    }
+
+    static class SlowDataSource extends DelegatingDataSource {
+
+        static volatile boolean enabled = true;
+
+        SlowDataSource(DataSource dataSource) {
+            super(dataSource);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            if (enabled) {
+                try {
+                    Thread.sleep(DATABASE_LATENCY.toMillis());
+                }
+                catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return super.getConnection();
+        }
+
+    }
+
+}
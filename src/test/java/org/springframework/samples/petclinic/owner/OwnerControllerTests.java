@@ -16,11 +16,14 @@
 
 package org.springframework.samples.petclinic.owner;
 
+import com.jayway.jsonpath.JsonPath;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.condition.DisabledInNativeImage;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
@@ -56,6 +59,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
  * @author Wick Dynex
  */
 @WebMvcTest(OwnerController.class)
+@Import(OwnerResolver.class)
 @DisabledInNativeImage
 @DisabledInAotMode
 class OwnerControllerTests {
@@ -68,6 +72,9 @@ class OwnerControllerTests {
 	@MockitoBean
 	private OwnerRepository owners;
 
+	@MockitoBean
+	private VisitRepository visits;
+
 	private Owner george() {
 		Owner george = new Owner();
 		george.setId(TEST_OWNER_ID);
@@ -167,6 +174,48 @@ class OwnerControllerTests {
 
 	}
 
+	private static OwnerSummary georgeSummary() {
+		return new OwnerSummary(TEST_OWNER_ID, "George", "Franklin", "110 W. Liberty St.", "Madison", "6085551023",
+				"Max");
+	}
+
+	@Test
+	void testSearchOwnersReturnsContinuation() throws Exception {
+		given(this.owners.findSummariesByLastNameStartingWith("Fr", "", 0, Limit.of(2)))
+			.willReturn(List.of(georgeSummary(), georgeSummary()));
+		mockMvc.perform(get("/owners").param("lastName", "Fr").param("size", "1"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.owners", hasSize(1)))
+			.andExpect(jsonPath("$.owners[0].lastName").value("Franklin"))
+			.andExpect(jsonPath("$.owners[0].petNames").value("Max"))
+			.andExpect(jsonPath("$.next").isNotEmpty());
+	}
+
+	@Test
+	void testSearchOwnersResumesFromContinuation() throws Exception {
+		given(this.owners.findSummariesByLastNameStartingWith("", "", 0, Limit.of(2)))
+			.willReturn(List.of(georgeSummary(), georgeSummary()));
+		given(this.owners.findSummariesByLastNameStartingWith("", "Franklin", TEST_OWNER_ID, Limit.of(2)))
+			.willReturn(List.of());
+
+		String body = mockMvc.perform(get("/owners").param("size", "1"))
+			.andExpect(status().isOk())
+			.andReturn()
+			.getResponse()
+			.getContentAsString();
+		String next = JsonPath.read(body, "$.next");
+
+		mockMvc.perform(get("/owners").param("continuation", next).param("size", "1"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.owners").isEmpty())
+			.andExpect(jsonPath("$.next").doesNotExist());
+	}
+
+	@Test
+	void testSearchOwnersRejectsMalformedContinuation() throws Exception {
+		mockMvc.perform(get("/owners").param("continuation", "not-a-token")).andExpect(status().isBadRequest());
+	}
+
 	@Test
 	void testInitUpdateOwnerForm() throws Exception {
 		mockMvc.perform(get("/owners/{ownerId}/edit", TEST_OWNER_ID))
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.samples.petclinic.service.StatementBudget.assertStatements;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.model;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+
+/**
+ * Counts the JDBC statements of the pet and visit forms against the real database: each
+ * request loads the owner aggregate once, however many model attributes and handler
+ * arguments need it. Owner 6 has the pets 7 (Samantha) and 8 (Max).
+ */
+@SpringBootTest(properties = "petclinic.jdbc.metrics.enabled=true")
+@AutoConfigureMockMvc
+class OwnerFormsStatementTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private PetTypeRegistry petTypes;
+
+	@BeforeEach
+	void loadPetTypes() {
+		// reference data, loaded once and then served from memory
+		this.petTypes.findAll();
+	}
+
+	@Test
+	void editPetFormLoadsOwnerOnce() throws Exception {
+		perform(1, get("/owners/6/pets/8/edit")).andExpectAll(status().isOk(), model().attributeExists("owner", "pet"));
+	}
+
+	@Test
+	void updatePetLoadsOwnerOnce() throws Exception {
+		try {
+			// the load, then the merge of the detached owner with its pets and one update
+			perform(4, post("/owners/6/pets/8/edit").param("name", "Max")
+				.param("type", "cat")
+				.param("birthDate", "2012-09-05")).andExpect(status().is3xxRedirection());
+			assertThat(this.jdbcTemplate.queryForObject("SELECT birth_date FROM pets WHERE id = 8", LocalDate.class))
+				.isEqualTo(LocalDate.of(2012, 9, 5));
+		}
+		finally {
+			this.jdbcTemplate.update("UPDATE pets SET birth_date = '2012-09-04' WHERE id = 8");
+		}
+	}
+
+	@Test
+	void updatePetWithDuplicateNameIsRejected() throws Exception {
+		perform(1, post("/owners/6/pets/8/edit").param("name", "Samantha")
+			.param("type", "cat")
+			.param("birthDate", "2012-09-04")).andExpect(model().attributeHasFieldErrorCode("pet", "name", "duplicate"));
+		assertThat(this.jdbcTemplate.queryForObject("SELECT name FROM pets WHERE id = 8", String.class))
+			.isEqualTo("Max");
+	}
+
+	@Test
+	void newVisitFormLoadsOwnerOnce() throws Exception {
+		// the owner with its pets, and the recent visits of the pet
+		perform(2, get("/owners/6/pets/8/visits/new")).andExpect(status().isOk());
+	}
+
+	@Test
+	void bookingVisitLoadsNothing() throws Exception {
+		try {
+			perform(1, post("/owners/6/pets/8/visits/new").accept(MediaType.TEXT_HTML)
+				.param("date", "2013-02-01")
+				.param("description", "checkup")).andExpect(status().is3xxRedirection());
+		}
+		finally {
+			this.jdbcTemplate.update("DELETE FROM visits WHERE pet_id = 8 AND visit_date = '2013-02-01'");
+		}
+	}
+
+	private ResultActions perform(int maxStatements, RequestBuilder request) {
+		return assertStatements(maxStatements, () -> {
+			try {
+				return this.mockMvc.perform(request);
+			}
+			catch (Exception ex) {
+				throw new IllegalStateException(ex);
+			}
+		});
+	}
+
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for the pet lookups of {@link Owner}
+ */
+class OwnerTests {
+
+	private Owner owner;
+
+	@BeforeEach
+	void setup() {
+		this.owner = new Owner();
+		for (int id = 1; id <= 300; id++) {
+			this.owner.getPets().add(pet(id, "Pet " + id));
+		}
+	}
+
+	@Test
+	void testGetPetByIdAndName() {
+		assertThat(this.owner.getPet(150).getName()).isEqualTo("Pet 150");
+		assertThat(this.owner.getPet("pet 42").getId()).isEqualTo(42);
+		assertThat(this.owner.getPet("PET 300", true).getId()).isEqualTo(300);
+		assertThat(this.owner.getPet(301)).isNull();
+		assertThat(this.owner.getPet((Integer) null)).isNull();
+		assertThat(this.owner.getPet("Pet 301")).isNull();
+		assertThat(this.owner.getPet((String) null)).isNull();
+	}
+
+	@Test
+	void testGetAddedPet() {
+		assertThat(this.owner.getPet("Leo")).isNull();
+		Pet leo = pet(null, "Leo");
+		this.owner.addPet(leo);
+
+		assertThat(this.owner.getPet("leo")).isSameAs(leo);
+		assertThat(this.owner.getPet("leo", true)).isNull();
+
+		leo.setId(301);
+		assertThat(this.owner.getPet(301)).isSameAs(leo);
+		assertThat(this.owner.getPet("leo", true)).isSameAs(leo);
+	}
+
+	@Test
+	void testGetPetAddedToList() {
+		assertThat(this.owner.getPet(1)).isNotNull();
+		this.owner.getPets().add(pet(301, "Basil"));
+
+		assertThat(this.owner.getPet(301).getName()).isEqualTo("Basil");
+		assertThat(this.owner.getPet("basil").getId()).isEqualTo(301);
+	}
+
+	@Test
+	void testGetRenamedPet() {
+		Pet pet = this.owner.getPet(7);
+		pet.setName("Rosy");
+
+		assertThat(this.owner.getPet("Pet 7")).isNull();
+		assertThat(this.owner.getPet("rosy")).isSameAs(pet);
+	}
+
+	@Test
+	void testGetSavedPetBehindNewPetOfSameName() {
+		Owner owner = new Owner();
+		Pet unsaved = pet(null, "Max");
+		Pet saved = pet(1, "max");
+		owner.getPets().add(unsaved);
+		owner.getPets().add(saved);
+
+		assertThat(owner.getPet("Max")).isSameAs(unsaved);
+		assertThat(owner.getPet("Max", true)).isSameAs(saved);
+	}
+
+	private static Pet pet(Integer id, String name) {
+		Pet pet = new Pet();
+		pet.setId(id);
+		pet.setName(name);
+		return pet;
+	}
+
+}
@@ -18,6 +18,8 @@ package org.springframework.samples.petclinic.owner;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 import java.text.ParseException;
 import java.util.ArrayList;
@@ -45,11 +47,14 @@ class PetTypeFormatterTests {
 	@Mock
 	private OwnerRepository pets;
 
+	private PetTypeRegistry petTypes;
+
 	private PetTypeFormatter petTypeFormatter;
 
 	@BeforeEach
 	void setup() {
-		this.petTypeFormatter = new PetTypeFormatter(pets);
+		this.petTypes = new PetTypeRegistry(pets);
+		this.petTypeFormatter = new PetTypeFormatter(this.petTypes);
 	}
 
 	@Test
@@ -75,6 +80,26 @@ class PetTypeFormatterTests {
 		});
 	}
 
+	@Test
+	void shouldLoadPetTypesOnlyOnce() throws ParseException {
+		given(this.pets.findPetTypes()).willReturn(makePetTypes());
+		petTypeFormatter.parse("Bird", Locale.ENGLISH);
+		petTypeFormatter.parse("Dog", Locale.ENGLISH);
+		verify(this.pets, times(1)).findPetTypes();
+	}
+
+	@Test
+	void shouldNotKeepPetTypesLoadedDuringRefresh() throws ParseException {
+		given(this.pets.findPetTypes()).willAnswer(invocation -> {
+			// a pet type is added while the previous ones are read
+			this.petTypes.refresh();
+			return List.of();
+		}).willReturn(makePetTypes());
+		Assertions.assertThrows(ParseException.class, () -> petTypeFormatter.parse("Bird", Locale.ENGLISH));
+		assertThat(petTypeFormatter.parse("Bird", Locale.ENGLISH).getName()).isEqualTo("Bird");
+		verify(this.pets, times(2)).findPetTypes();
+	}
+
 	/**
 	 * Helper method to produce some sample pet types just for test purpose
 	 * @return {@link Collection} of {@link PetType}
@@ -83,11 +108,13 @@ class PetTypeFormatterTests {
 		List<PetType> petTypes = new ArrayList<>();
 		petTypes.add(new PetType() {
 			{
+				setId(1);
 				setName("Dog");
 			}
 		});
 		petTypes.add(new PetType() {
 			{
+				setId(2);
 				setName("Bird");
 			}
 		});
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import java.time.LocalDate;
+import java.util.Collections;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import jakarta.persistence.EntityManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for {@link VisitArchiver} and the visit history of
+ * {@link VisitRepository}. The sample data has two visits for each of the pets 7 and 8,
+ * from the 1st to the 4th of January 2013.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = Replace.NONE)
+class VisitArchiverTests {
+
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	PlatformTransactionManager transactionManager;
+
+	@Autowired
+	OwnerRepository owners;
+
+	@Autowired
+	VisitRepository visits;
+
+	@Autowired
+	EntityManager entityManager;
+
+	VisitArchiver archiver;
+
+	@BeforeEach
+	void setup() {
+		this.archiver = new VisitArchiver(this.jdbcTemplate, this.transactionManager);
+	}
+
+	@Test
+	void shouldMoveVisitsBeforeHorizonToArchive() {
+		assertThat(this.archiver.archive(LocalDate.of(2013, 1, 3))).isEqualTo(2);
+
+		assertThat(this.jdbcTemplate.queryForList("SELECT id FROM visits_archive ORDER BY id", Integer.class))
+			.containsExactly(1, 2);
+		assertThat(this.jdbcTemplate.queryForList("SELECT id FROM visits WHERE pet_id IN (7, 8) ORDER BY id",
+				Integer.class))
+			.containsExactly(3, 4);
+		assertThat(this.archiver.archive(LocalDate.of(2013, 1, 3))).isZero();
+	}
+
+	@Test
+	void shouldLoadOnlyVisitsThatAreNotArchived() {
+		this.archiver.archive(LocalDate.of(2013, 1, 3));
+		this.entityManager.clear();
+
+		Pet pet = this.owners.findById(6).orElseThrow().getPet(8);
+		assertThat(pet.getVisits()).extracting(Visit::getId).containsExactly(3);
+	}
+
+	@Test
+	void shouldPageThroughHistoryIncludingArchivedVisits() {
+		this.archiver.archive(LocalDate.of(2013, 1, 3));
+
+		Slice<VisitHistoryEntry> first = this.visits.findHistoryByPetId(8, PageRequest.of(0, 1));
+		assertThat(first.getContent()).containsExactly(
+				new VisitHistoryEntry(3, LocalDate.of(2013, 1, 3), "neutered", false));
+		assertThat(first.hasNext()).isTrue();
+
+		Slice<VisitHistoryEntry> second = this.visits.findHistoryByPetId(8, first.nextPageable());
+		assertThat(second.getContent()).containsExactly(
+				new VisitHistoryEntry(2, LocalDate.of(2013, 1, 2), "rabies shot", true));
+		assertThat(second.hasNext()).isFalse();
+	}
+
+	@Test
+	void shouldArchiveInChunksAndKeepVisitsWithoutDate() {
+		int chunks = 3;
+		this.jdbcTemplate.batchUpdate("INSERT INTO visits (pet_id, visit_date, description) VALUES (1, ?, 'checkup')",
+				Collections.nCopies(chunks * VisitArchiver.CHUNK_SIZE, new Object[] { LocalDate.of(2000, 1, 1) }));
+		this.jdbcTemplate.update("INSERT INTO visits (pet_id, visit_date, description) VALUES (1, NULL, 'checkup')");
+
+		assertThat(this.archiver.archive(LocalDate.of(2001, 1, 1))).isEqualTo(chunks * VisitArchiver.CHUNK_SIZE);
+
+		assertThat(this.jdbcTemplate.queryForObject("SELECT COUNT(*) FROM visits WHERE pet_id = 1", Integer.class))
+			.isEqualTo(1);
+		assertThat(this.visits.findHistoryByPetId(1, PageRequest.of(0, 10)).getContent()).hasSize(10)
+			.allMatch(VisitHistoryEntry::archived);
+	}
+
+}
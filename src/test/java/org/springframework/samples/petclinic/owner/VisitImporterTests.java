@@ -0,0 +1,181 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.owner;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.samples.petclinic.owner.VisitImporter.ImportResult;
+import org.springframework.samples.petclinic.owner.VisitImporter.RejectedRecord;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.validation.Validation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.spy;
+
+/**
+ * Test class for {@link VisitImporter}
+ */
+@JdbcTest
+@AutoConfigureTestDatabase(replace = Replace.NONE)
+class VisitImporterTests {
+
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	PlatformTransactionManager transactionManager;
+
+	VisitImporter importer;
+
+	@BeforeEach
+	void setup() {
+		this.importer = new VisitImporter(this.jdbcTemplate, this.transactionManager, new ObjectMapper(),
+				Validation.buildDefaultValidatorFactory().getValidator());
+	}
+
+	@Test
+	void shouldImportNdjsonAndReportRejectedLines() throws IOException {
+		int visits = countVisits();
+
+		ImportResult result = this.importer.importNdjson(input("""
+				{"petId": 1, "date": "2024-01-02", "description": "rabies shot"}
+				{"petId": 1, "description": ""}
+
+				{"petId": 999, "description": "checkup"}
+				not json
+				{"petId": 2, "description": "neutered"}
+				"""));
+
+		assertThat(result.getImported()).isEqualTo(2);
+		assertThat(result.getRejected()).extracting(RejectedRecord::line).containsExactly(2, 4, 5);
+		assertThat(result.getRejected().get(0).reason()).startsWith("description:");
+		assertThat(countVisits()).isEqualTo(visits + 2);
+	}
+
+	@Test
+	void shouldImportCsvInChunks() throws IOException {
+		int visits = countVisits();
+		StringBuilder csv = new StringBuilder("petId,date,description\n");
+		for (int i = 0; i < VisitImporter.CHUNK_SIZE + 10; i++) {
+			csv.append("3,2024-02-01,\"checkup, \"\"routine\"\"\"\n");
+		}
+		csv.append("3,yesterday,checkup\n");
+
+		ImportResult result = this.importer.importCsv(input(csv.toString()));
+
+		assertThat(result.getImported()).isEqualTo(VisitImporter.CHUNK_SIZE + 10);
+		assertThat(result.getRejected()).extracting(RejectedRecord::line)
+			.containsExactly(VisitImporter.CHUNK_SIZE + 12);
+		assertThat(countVisits()).isEqualTo(visits + VisitImporter.CHUNK_SIZE + 10);
+		assertThat(this.jdbcTemplate.queryForObject("SELECT description FROM visits ORDER BY id DESC LIMIT 1",
+				String.class))
+			.isEqualTo("checkup, \"routine\"");
+	}
+
+	@Test
+	void shouldListOnlyTheFirstRejectedRecords() throws IOException {
+		StringBuilder ndjson = new StringBuilder();
+		for (int i = 0; i < VisitImporter.MAX_REJECTED + 10; i++) {
+			ndjson.append("{\"petId\": 999, \"description\": \"checkup\"}\n");
+			ndjson.append("{\"petId\": 3}\n");
+		}
+
+		ImportResult result = this.importer.importNdjson(input(ndjson.toString()));
+
+		assertThat(result.getFailed()).isEqualTo(2 * (VisitImporter.MAX_REJECTED + 10));
+		assertThat(result.getRejected()).hasSize(VisitImporter.MAX_REJECTED);
+		assertThat(result.getRejected()).extracting(RejectedRecord::line)
+			.startsWith(1, 2, 3)
+			.endsWith(VisitImporter.MAX_REJECTED);
+	}
+
+	@Test
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	void shouldRejectRecordsRefusedByTheDatabase() throws IOException {
+		int visits = countVisits();
+		this.jdbcTemplate
+			.execute("ALTER TABLE visits ADD CONSTRAINT visits_import_test CHECK (description <> 'refused')");
+		try {
+			ImportResult result = this.importer.importNdjson(input("""
+					{"petId": 3, "description": "import test"}
+					{"petId": 3, "description": "refused"}
+					{"petId": 3, "description": "import test"}
+					"""));
+
+			assertThat(result.getImported()).isEqualTo(2);
+			assertThat(result.getRejected()).extracting(RejectedRecord::line).containsExactly(2);
+			assertThat(result.getRejected().get(0).reason()).startsWith("not inserted:");
+			assertThat(countVisits()).isEqualTo(visits + 2);
+		}
+		finally {
+			this.jdbcTemplate.execute("ALTER TABLE visits DROP CONSTRAINT visits_import_test");
+			this.jdbcTemplate.update("DELETE FROM visits WHERE description = 'import test'");
+		}
+	}
+
+	@Test
+	void shouldRejectChunksWhosePetsCannotBeRead() throws IOException {
+		int visits = countVisits();
+		JdbcTemplate failingTemplate = spy(this.jdbcTemplate);
+		doCallRealMethod().doThrow(new QueryTimeoutException("pets query timed out"))
+			.when(failingTemplate)
+			.query(any(PreparedStatementCreator.class), ArgumentMatchers.<RowMapper<Integer>>any());
+		VisitImporter importer = new VisitImporter(failingTemplate, this.transactionManager, new ObjectMapper(),
+				Validation.buildDefaultValidatorFactory().getValidator());
+		StringBuilder ndjson = new StringBuilder();
+		for (int i = 0; i < VisitImporter.CHUNK_SIZE + 2; i++) {
+			ndjson.append("{\"petId\": 3, \"description\": \"checkup\"}\n");
+		}
+
+		ImportResult result = importer.importNdjson(input(ndjson.toString()));
+
+		assertThat(result.getImported()).isEqualTo(VisitImporter.CHUNK_SIZE);
+		assertThat(result.getRejected()).extracting(RejectedRecord::line)
+			.containsExactly(VisitImporter.CHUNK_SIZE + 1, VisitImporter.CHUNK_SIZE + 2);
+		assertThat(result.getRejected().get(0).reason()).isEqualTo("not inserted: pets query timed out");
+		assertThat(countVisits()).isEqualTo(visits + VisitImporter.CHUNK_SIZE);
+	}
+
+	private int countVisits() {
+		return this.jdbcTemplate.queryForObject("SELECT COUNT(*) FROM visits", Integer.class);
+	}
+
+	private static InputStream input(String content) {
+		return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+	}
+
+}
@@ -17,25 +17,39 @@
 package org.springframework.samples.petclinic.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.samples.petclinic.service.StatementBudget.assertStatements;
 
 import java.time.LocalDate;
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
+import org.hibernate.Hibernate;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.samples.petclinic.owner.Owner;
 import org.springframework.samples.petclinic.owner.OwnerRepository;
+import org.springframework.samples.petclinic.owner.OwnerSummary;
 import org.springframework.samples.petclinic.owner.Pet;
 import org.springframework.samples.petclinic.owner.PetType;
+import org.springframework.samples.petclinic.owner.PetTypeRegistry.PetTypesChangedEvent;
 import org.springframework.samples.petclinic.owner.Visit;
+import org.springframework.samples.petclinic.owner.VisitRepository;
+import org.springframework.samples.petclinic.system.JdbcStatisticsBeanPostProcessor;
+import org.springframework.samples.petclinic.vet.Specialty;
 import org.springframework.samples.petclinic.vet.Vet;
+import org.springframework.samples.petclinic.vet.VetCaches.VetsChangedEvent;
 import org.springframework.samples.petclinic.vet.VetRepository;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
@@ -69,6 +83,8 @@ import org.springframework.transaction.annotation.Transactional;
 @DataJpaTest
 // Ensure that if the mysql profile is active we connect to the real database:
 @AutoConfigureTestDatabase(replace = Replace.NONE)
+@RecordApplicationEvents
+@Import(JdbcStatisticsBeanPostProcessor.class)
 // @TestPropertySource("/application-postgres.properties")
 class ClinicServiceTests {
 
@@ -78,6 +94,15 @@ class ClinicServiceTests {
 	@Autowired
 	protected VetRepository vets;
 
+	@Autowired
+	protected VisitRepository visits;
+
+	@Autowired
+	protected TestEntityManager entityManager;
+
+	@Autowired
+	ApplicationEvents events;
+
 	Pageable pageable;
 
 	@Test
@@ -89,6 +114,28 @@ class ClinicServiceTests {
 		assertThat(owners).isEmpty();
 	}
 
+	@Test
+	void shouldFindOwnerSummariesByLastName() {
+		List<OwnerSummary> summaries = assertStatements(1,
+				() -> this.owners.findSummariesByLastNameStartingWith("", "", 0, Limit.of(100)));
+		assertThat(summaries).hasSize((int) this.owners.count());
+		assertThat(summaries).extracting(OwnerSummary::lastName).isSortedAccordingTo(String.CASE_INSENSITIVE_ORDER);
+		assertThat(summaries).filteredOn(summary -> summary.id() == 6)
+			.singleElement()
+			.extracting(OwnerSummary::petNames)
+			.isEqualTo("Max, Samantha");
+
+		OwnerSummary firstDavis = this.owners.findSummariesByLastNameStartingWith("Davis", "", 0, Limit.of(1)).get(0);
+		assertThat(this.owners.findSummariesByLastNameStartingWith("Davis", firstDavis.lastName(), firstDavis.id(),
+				Limit.of(10)))
+			.extracting(OwnerSummary::firstName)
+			.containsExactly("Harold");
+		assertThat(this.owners.findSummariesByLastNameStartingWith("Da_is", "", 0, Limit.of(10))).isEmpty();
+		assertThat(this.owners.findSummariesByLastNameStartingWith("dAV", "", 0, Limit.of(10)))
+			.extracting(OwnerSummary::firstName)
+			.containsExactly("Betty", "Harold");
+	}
+
 	@Test
 	void shouldFindSingleOwnerWithPet() {
 		Optional<Owner> optionalOwner = this.owners.findById(1);
@@ -148,6 +195,22 @@ class ClinicServiceTests {
 		assertThat(petType4.getName()).isEqualTo("snake");
 	}
 
+	@Test
+	void shouldAnnouncePetTypeChanges() {
+		PetType lizard = new PetType();
+		lizard.setName("lizard");
+		this.entityManager.persistAndFlush(lizard);
+		assertThat(this.events.stream(PetTypesChangedEvent.class)).hasSize(1);
+	}
+
+	@Test
+	void shouldAnnounceSpecialtyChanges() {
+		Specialty acupuncture = new Specialty();
+		acupuncture.setName("acupuncture");
+		this.entityManager.persistAndFlush(acupuncture);
+		assertThat(this.events.stream(VetsChangedEvent.class)).hasSize(1);
+	}
+
 	@Test
 	@Transactional
 	void shouldInsertPetIntoDatabaseAndGenerateId() {
@@ -208,6 +271,21 @@ class ClinicServiceTests {
 		assertThat(vet.getSpecialties().get(1).getName()).isEqualTo("surgery");
 	}
 
+	@Test
+	void shouldServeReferenceDataFromSecondLevelCache() {
+		this.vets.findAll();
+		this.owners.findWithPetsById(6);
+		this.entityManager.clear();
+
+		// only the query itself, the specialties of each vet come from the cache
+		Collection<Vet> vets = assertStatements(1, () -> this.vets.findAll());
+		assertThat(EntityUtils.getById(vets, Vet.class, 3).getSpecialties()).extracting(Specialty::getName)
+			.containsExactly("dentistry", "surgery");
+		assertStatements(0, () -> this.entityManager.find(PetType.class, 1));
+		assertThat(assertStatements(1, () -> this.owners.findWithPetsById(6)).orElseThrow().getPets())
+			.allMatch(pet -> pet.getType().getName().equals("cat"));
+	}
+
 	@Test
 	@Transactional
 	void shouldAddNewVisitForPet() {
@@ -228,6 +306,55 @@ class ClinicServiceTests {
 			.allMatch(value -> value.getId() != null);
 	}
 
+	@Test
+	void shouldAppendVisitForPetOfOwner() {
+		int found = this.owners.findRecentVisitsByPetId(7, Limit.unlimited()).size();
+
+		assertThat(this.visits.addVisit(6, 7, LocalDate.now(), "test")).isEqualTo(1);
+		// pet 7 belongs to owner 6 only
+		assertThat(this.visits.addVisit(1, 7, LocalDate.now(), "test")).isZero();
+
+		assertThat(this.owners.findRecentVisitsByPetId(7, Limit.unlimited())).hasSize(found + 1)
+			.first()
+			.extracting(Visit::getDescription)
+			.isEqualTo("test");
+	}
+
+	@Test
+	void shouldFindOwnerWithPetsOnly() {
+		Optional<Owner> optionalOwner = this.owners.findWithPetsById(6);
+		assertThat(optionalOwner).isPresent();
+		Owner owner6 = optionalOwner.get();
+
+		assertThat(Hibernate.isInitialized(owner6.getPets())).isTrue();
+		assertThat(owner6.getPets()).hasSize(2)
+			.allMatch(pet -> pet.getType() != null)
+			.noneMatch(pet -> Hibernate.isInitialized(pet.getVisits()));
+	}
+
+	@Test
+	void shouldLoadOwnerAggregatesWithinBudget() {
+		// the owner with its pets and their types, then the visits of both pets at once
+		Owner owner6 = assertStatements(2, () -> this.owners.findById(6)).orElseThrow();
+		assertThat(owner6.getPets()).hasSize(2).allMatch(pet -> Hibernate.isInitialized(pet.getVisits()));
+
+		Owner owner1 = assertStatements(1, () -> this.owners.findWithPetsById(1)).orElseThrow();
+		assertThat(owner1.getPets()).hasSize(1);
+	}
+
+	@Test
+	void shouldAppendVisitInOneStatement() {
+		assertThat(assertStatements(1, () -> this.visits.addVisit(6, 7, LocalDate.now(), "test"))).isEqualTo(1);
+	}
+
+	@Test
+	void shouldFindRecentVisitsByPetId() {
+		List<Visit> visits = this.owners.findRecentVisitsByPetId(7, Limit.of(1));
+
+		assertThat(visits).hasSize(1);
+		assertThat(visits.get(0).getDate()).isEqualTo(LocalDate.of(2013, 1, 4));
+	}
+
 	@Test
 	void shouldFindVisitsByPetId() {
 		Optional<Owner> optionalOwner = this.owners.findById(6);
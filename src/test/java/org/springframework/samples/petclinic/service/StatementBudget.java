@@ -0,0 +1,51 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.function.Supplier;
+
+import org.springframework.samples.petclinic.system.JdbcStatistics;
+import org.springframework.samples.petclinic.system.JdbcStatistics.Recording;
+import org.springframework.samples.petclinic.system.JdbcStatisticsBeanPostProcessor;
+
+/**
+ * Assertions on the number of JDBC statements issued by data access code, to catch N+1
+ * selects and other regressions in fetching. The test context needs to instrument its
+ * data source, e.g. by importing the {@link JdbcStatisticsBeanPostProcessor} or, for a
+ * complete application context, by setting {@code petclinic.jdbc.metrics.enabled}.
+ */
+public abstract class StatementBudget {
+
+	/**
+	 * Run the given action and assert that it executed at most the given number of JDBC
+	 * statements.
+	 * @param maxStatements the statement budget of the action
+	 * @param action the data access code to run
+	 * @return the result of the action
+	 */
+	public static <T> T assertStatements(int maxStatements, Supplier<T> action) {
+		T result;
+		try (Recording recording = JdbcStatistics.start()) {
+			result = action.get();
+			assertThat(recording.getStatementCount()).as("JDBC statements (%s)", recording)
+				.isLessThanOrEqualTo(maxStatements);
+		}
+		return result;
+	}
+
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.samples.petclinic.system;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.samples.petclinic.system.SampleDataGenerator.Result;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for {@link SampleDataGenerator}
+ */
+@JdbcTest
+@AutoConfigureTestDatabase(replace = Replace.NONE)
+class SampleDataGeneratorTests {
+
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	@Test
+	void shouldGenerateOwnersPetsAndVisits() {
+		int owners = count("owners");
+		int pets = count("pets");
+		int visits = count("visits");
+
+		// Small statements and batches to exercise the partial flushes
+		Result result = new SampleDataGenerator(this.jdbcTemplate, 7, 3).generate(25, 2, 3, 42);
+
+		assertThat(result.firstOwnerId()).isEqualTo(owners + 1);
+		assertThat(count("owners")).isEqualTo(owners + 25);
+		assertThat(count("pets")).isEqualTo(pets + 50);
+		assertThat(count("visits")).isEqualTo(visits + 150);
+		assertThat(this.jdbcTemplate.queryForObject("SELECT COUNT(*) FROM pets WHERE owner_id = ?", Integer.class,
+				result.firstOwnerId() + 24))
+			.isEqualTo(2);
+	}
+
+	@Test
+	void shouldContinueIdentitiesAfterGeneratedRows() {
+		new SampleDataGenerator(this.jdbcTemplate, 100, 50).generate(3, 1, 1, 42);
+		int maxId = this.jdbcTemplate.queryForObject("SELECT MAX(id) FROM owners", Integer.class);
+
+		this.jdbcTemplate.update("INSERT INTO owners (first_name, last_name) VALUES ('Ada', 'Lovelace')");
+
+		assertThat(this.jdbcTemplate.queryForObject("SELECT id FROM owners WHERE last_name = 'Lovelace'",
+				Integer.class))
+			.isEqualTo(maxId + 1);
+	}
+
+	private int count(String table) {
+		return this.jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Integer.class);
+	}
+
+}